@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.configuration;
+
+/**
+ * Comparison of a column to a filter value, the value is always bound as a query parameter.
+ */
+public enum FilterOperator {
+
+    EQUAL("="),
+    NOT_EQUAL("<>"),
+    LOWER("<"),
+    LOWER_OR_EQUAL("<="),
+    GREATER(">"),
+    GREATER_OR_EQUAL(">="),
+    LIKE("LIKE"),
+    IS_NULL("IS NULL"),
+    IS_NOT_NULL("IS NOT NULL");
+
+    private final String operator;
+
+    FilterOperator(final String operator) {
+        this.operator = operator;
+    }
+
+    /**
+     * @return false when the operator don't take any value
+     */
+    public boolean hasValue() {
+        return this != IS_NULL && this != IS_NOT_NULL;
+    }
+
+    /**
+     * @param column the delimited column name
+     * @return the predicate with a parameter placeholder when the operator take a value
+     */
+    public String render(final String column) {
+        return column + " " + operator + (hasValue() ? " ?" : "");
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.configuration;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+
+/**
+ * Type of a filter value, used to bind the value with the JDBC type of the filtered column.
+ */
+public enum FilterType {
+
+    STRING {
+
+        @Override
+        public Serializable parse(final String value) {
+            return value;
+        }
+    },
+    INTEGER {
+
+        @Override
+        public Serializable parse(final String value) {
+            return Long.valueOf(value.trim());
+        }
+    },
+    DECIMAL {
+
+        @Override
+        public Serializable parse(final String value) {
+            return new BigDecimal(value.trim());
+        }
+    },
+    BOOLEAN {
+
+        @Override
+        public Serializable parse(final String value) {
+            return Boolean.valueOf(value.trim());
+        }
+    },
+    DATE {
+
+        @Override
+        public Serializable parse(final String value) {
+            return Date.valueOf(value.trim());
+        }
+    },
+    TIMESTAMP {
+
+        @Override
+        public Serializable parse(final String value) {
+            return Timestamp.valueOf(value.trim());
+        }
+    };
+
+    /**
+     * @param value the value of the filter. Dates use the <code>yyyy-mm-dd</code> format and timestamps the
+     * <code>yyyy-mm-dd hh:mm:ss[.f]</code> format
+     * @return the value to bind
+     * @throws IllegalArgumentException if the value can't be converted
+     */
+    public abstract Serializable parse(final String value);
+}
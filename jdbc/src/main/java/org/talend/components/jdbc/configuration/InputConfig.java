@@ -19,4 +19,18 @@ import java.io.Serializable;
 public interface InputConfig extends Serializable {
 
     BaseDataSet getDataSet();
+
+    /**
+     * @return the column used to read incrementally, null or empty to read the whole query result
+     */
+    String getWatermarkColumn();
+
+    /**
+     * @return the local file storing the high-water mark of the watermark column between runs
+     */
+    String getCheckpointFile();
+
+    default boolean isIncremental() {
+        return getWatermarkColumn() != null && !getWatermarkColumn().trim().isEmpty();
+    }
 }
\ No newline at end of file
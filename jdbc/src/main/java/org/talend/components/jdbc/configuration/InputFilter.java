@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.configuration;
+
+import lombok.Data;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.condition.ActiveIf;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import java.io.Serializable;
+
+@Data
+@GridLayout({ @GridLayout.Row({ "column", "operator", "value", "type" }) })
+@Documentation("Filter on a column of the table")
+public class InputFilter implements Serializable {
+
+    @Option
+    @Documentation("The filtered column")
+    private String column;
+
+    @Option
+    @Documentation("The comparison operator")
+    private FilterOperator operator = FilterOperator.EQUAL;
+
+    @Option
+    @ActiveIf(target = "operator", negate = true, value = { "IS_NULL", "IS_NOT_NULL" })
+    @Documentation("The value compared to the column, bound as a query parameter")
+    private String value;
+
+    @Option
+    @ActiveIf(target = "operator", negate = true, value = { "IS_NULL", "IS_NOT_NULL" })
+    @Documentation("The type of the value. Dates use the yyyy-mm-dd format and timestamps the yyyy-mm-dd hh:mm:ss format")
+    private FilterType type = FilterType.STRING;
+
+}
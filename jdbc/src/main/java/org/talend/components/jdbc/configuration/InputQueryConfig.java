@@ -15,12 +15,14 @@ package org.talend.components.jdbc.configuration;
 import lombok.Data;
 import org.talend.components.jdbc.dataset.SqlQueryDataset;
 import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.condition.ActiveIf;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
 import org.talend.sdk.component.api.meta.Documentation;
 
 @Data
 @GridLayout(value = { @GridLayout.Row({ "dataSet" }) })
-@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataSet" }) })
+@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataSet" }), @GridLayout.Row("watermarkColumn"),
+        @GridLayout.Row("checkpointFile") })
 @Documentation("Query input configuration")
 public class InputQueryConfig implements InputConfig {
 
@@ -28,4 +30,14 @@ public class InputQueryConfig implements InputConfig {
     @Documentation("SQL query dataset")
     private SqlQueryDataset dataSet;
 
+    @Option
+    @Documentation("Monotonic id or last modification date column of the query. When defined only the rows with a value"
+            + " greater than the watermark of the previous run are read, in the column order.")
+    private String watermarkColumn;
+
+    @Option
+    @ActiveIf(target = "watermarkColumn", negate = true, value = "")
+    @Documentation("Local file where the high-water mark of the watermark column is persisted for the next run.")
+    private String checkpointFile;
+
 }
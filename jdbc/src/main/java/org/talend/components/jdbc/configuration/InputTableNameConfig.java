@@ -15,12 +15,20 @@ package org.talend.components.jdbc.configuration;
 import lombok.Data;
 import org.talend.components.jdbc.dataset.TableNameDataset;
 import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.action.Suggestable;
+import org.talend.sdk.component.api.configuration.condition.ActiveIf;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
 import org.talend.sdk.component.api.meta.Documentation;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.talend.components.jdbc.service.UIActionService.ACTION_SUGGESTION_TABLE_COLUMNS_NAMES;
+
 @Data
-@GridLayout(value = { @GridLayout.Row({ "dataSet" }) })
-@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataSet" }) })
+@GridLayout(value = { @GridLayout.Row({ "dataSet" }), @GridLayout.Row("columns"), @GridLayout.Row("filters") })
+@GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row({ "dataSet" }), @GridLayout.Row("splitColumn"),
+        @GridLayout.Row("splitByStorage"), @GridLayout.Row("numPartitions"), @GridLayout.Row("watermarkColumn"), @GridLayout.Row("checkpointFile") })
 @Documentation("Table name input configuration")
 public class InputTableNameConfig implements InputConfig {
 
@@ -28,4 +36,42 @@ public class InputTableNameConfig implements InputConfig {
     @Documentation("table name dataset")
     private TableNameDataset dataSet;
 
+    @Option
+    @Suggestable(value = ACTION_SUGGESTION_TABLE_COLUMNS_NAMES, parameters = { "../dataSet" })
+    @Documentation("Columns to read. When empty all the columns of the table are read.")
+    private List<String> columns = new ArrayList<>();
+
+    @Option
+    @Documentation("Filters applied by the database, all the filters must match for a row to be read.")
+    private List<InputFilter> filters = new ArrayList<>();
+
+    @Option
+    @Suggestable(value = ACTION_SUGGESTION_TABLE_COLUMNS_NAMES, parameters = { "../dataSet" })
+    @Documentation("Numeric or date column used to split the table in ranges that are read in parallel."
+            + "\nWhen empty the table is read by a single worker.")
+    private String splitColumn;
+
+    @Option
+    @ActiveIf(target = "splitColumn", value = "")
+    @Documentation("Split the table in ranges of its physical storage when no split column is defined: ROWID ranges on"
+            + " Oracle, ctid page ranges on PostgreSQL, physical location ranges on SQL Server and sampled primary key"
+            + " ranges on the other databases.")
+    private boolean splitByStorage = false;
+
+    @Option
+    @Documentation("Number of partitions to read in parallel when the table is split."
+            + "\n0 means that the number of partitions is computed from the estimated table size.")
+    private int numPartitions = 0;
+
+    @Option
+    @Suggestable(value = ACTION_SUGGESTION_TABLE_COLUMNS_NAMES, parameters = { "../dataSet" })
+    @Documentation("Monotonic id or last modification date column. When defined only the rows with a value greater than the"
+            + " watermark of the previous run are read, in the column order, and the table is read by a single worker.")
+    private String watermarkColumn;
+
+    @Option
+    @ActiveIf(target = "watermarkColumn", negate = true, value = "")
+    @Documentation("Local file where the high-water mark of the watermark column is persisted for the next run.")
+    private String checkpointFile;
+
 }
@@ -22,6 +22,7 @@ import org.talend.sdk.component.api.configuration.action.Suggestable;
 import org.talend.sdk.component.api.configuration.action.Validable;
 import org.talend.sdk.component.api.configuration.condition.ActiveIf;
 import org.talend.sdk.component.api.configuration.condition.ActiveIfs;
+import org.talend.sdk.component.api.configuration.constraint.Min;
 import org.talend.sdk.component.api.configuration.constraint.Required;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
 import org.talend.sdk.component.api.meta.Documentation;
@@ -43,7 +44,13 @@ import static org.talend.sdk.component.api.configuration.condition.ActiveIfs.Ope
         @GridLayout.Row("varcharLength"), @GridLayout.Row("keys"), @GridLayout.Row("sortStrategy"), @GridLayout.Row("sortKeys"),
         @GridLayout.Row("distributionStrategy"), @GridLayout.Row("distributionKeys"), @GridLayout.Row("ignoreUpdate") })
 @GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row("dataset"),
-        @GridLayout.Row("rewriteBatchedStatements") })
+        @GridLayout.Row("rewriteBatchedStatements"), @GridLayout.Row("useNativeUpsert"), @GridLayout.Row("parallelUpsert"),
+        @GridLayout.Row("bisectRejects"), @GridLayout.Row("maxRetries"), @GridLayout.Row("retryBackoff"),
+        @GridLayout.Row("maxRetryBackoff"), @GridLayout.Row("maxFlushRecords"), @GridLayout.Row("maxFlushSize"),
+        @GridLayout.Row("commitMode"), @GridLayout.Row("asyncWrite"), @GridLayout.Row("writerShards"),
+        @GridLayout.Row("snowflakeChunkSize"), @GridLayout.Row("snowflakeUploadThreads"),
+        @GridLayout.Row("snowflakeFlushRecords"), @GridLayout.Row("snowflakeFlushInterval"), @GridLayout.Row("mssqlBulkCopy"),
+        @GridLayout.Row("oracleAppendValues") })
 @Documentation("Those properties define an output data set for the JDBC output component")
 public class OutputConfig implements Serializable {
 
@@ -120,6 +127,111 @@ public class OutputConfig implements Serializable {
     @Documentation("Rewrite batched statements, to execute one statement per batch combining values in the sql query")
     private boolean rewriteBatchedStatements = true;
 
+    @Option
+    @ActiveIf(target = "../actionOnData", value = { "UPSERT" })
+    @Documentation("Use the database single statement upsert (MERGE, INSERT ... ON CONFLICT, ON DUPLICATE KEY UPDATE) when "
+            + "supported.\nOn PostgreSQL and MySQL the keys need to be a primary key or a unique constraint of the table.")
+    private boolean useNativeUpsert = false;
+
+    @Option
+    @ActiveIfs(operator = AND, value = { @ActiveIf(target = "../actionOnData", value = { "UPSERT" }),
+            @ActiveIf(target = "../useNativeUpsert", value = { "false" }) })
+    @Documentation("Run the insert and the update of an upsert concurrently on two connections.\n"
+            + "Each side is committed independently and the rejected records of both sides are reported.")
+    private boolean parallelUpsert = false;
+
+    @Option
+    @Documentation("When a batch fails, split it in halves executed in their own transaction until the failing records are "
+            + "isolated.\nOnly the failing records are rejected, the valid records of the batch are committed.\nIgnored when the "
+            + "records are committed per group.")
+    private boolean bisectRejects = false;
+
+    @Min(0)
+    @Option
+    @Documentation("The maximum number of times a batch failing on a dead lock is retried.")
+    private int maxRetries = 10;
+
+    @Min(0)
+    @Option
+    @Documentation("The number of milliseconds to wait before the first retry of a batch failing on a dead lock, "
+            + "the wait is doubled for every retry.")
+    private long retryBackoff = 200;
+
+    @Min(0)
+    @Option
+    @Documentation("The maximum number of milliseconds to wait before retrying a batch failing on a dead lock.")
+    private long maxRetryBackoff = 10000;
+
+    @Min(0)
+    @Option
+    @Documentation("The number of records buffered before they are written, without waiting for the end of the group. "
+            + "0 writes the whole group at once.")
+    private long maxFlushRecords = 0;
+
+    @Min(0)
+    @Option
+    @Documentation("The estimated size in MB of the records buffered before they are written, without waiting for the end "
+            + "of the group. 0 writes the whole group at once.")
+    private long maxFlushSize = 0;
+
+    @Option
+    @Documentation("Commit the records after each write or once per group. A group committed at once is rolled back as a "
+            + "whole when one of its writes fails, it needs an action using a single connection.")
+    private CommitMode commitMode = CommitMode.PER_FLUSH;
+
+    @Option
+    @Documentation("Write the records from a background thread while the next ones are buffered. A failing write is "
+            + "reported by the next write or at the end of the processing.")
+    private boolean asyncWrite = false;
+
+    @Min(1)
+    @Option
+    @Documentation("The number of connections writing each group in parallel. The records are routed by their keys so the "
+            + "records of a row are written in order, the inserts are split evenly. Each connection commits its own records.")
+    private int writerShards = 1;
+
+    @Min(1)
+    @Option
+    @ActiveIf(target = "../dataset.connection.dbType", value = { "Snowflake" })
+    @Documentation("The max size in MB of the gzip files uploaded to the Snowflake stage.")
+    private int snowflakeChunkSize = 16;
+
+    @Min(1)
+    @Option
+    @ActiveIf(target = "../dataset.connection.dbType", value = { "Snowflake" })
+    @Documentation("The number of files uploaded concurrently to the Snowflake stage, each upload uses its own connection.")
+    private int snowflakeUploadThreads = 4;
+
+    @Min(0)
+    @Option
+    @ActiveIf(target = "../dataset.connection.dbType", value = { "Snowflake" })
+    @Documentation("The number of records accumulated in the Snowflake staging table before they are applied to the table, "
+            + "0 applies each group.")
+    private long snowflakeFlushRecords = 0;
+
+    @Min(0)
+    @Option
+    @ActiveIf(target = "../dataset.connection.dbType", value = { "Snowflake" })
+    @Documentation("The max time in seconds records stay in the Snowflake staging table before they are applied to the table, "
+            + "checked when a group is loaded: the last groups of a stream that goes quiet are applied with the next group or "
+            + "when the output is closed. 0 disables it.")
+    private long snowflakeFlushInterval = 0;
+
+    @Option
+    @ActiveIfs(operator = AND, value = { @ActiveIf(target = "../dataset.connection.dbType", value = { "MSSQL" }),
+            @ActiveIf(target = "../actionOnData", value = { "INSERT" }) })
+    @Documentation("Insert the records with the SQL Server bulk copy API. A group failing as a whole is inserted again "
+            + "with batched statements to get the rejected records.")
+    private boolean mssqlBulkCopy = false;
+
+    @Option
+    @ActiveIfs(operator = AND, value = { @ActiveIf(target = "../dataset.connection.dbType", value = { "Oracle" }),
+            @ActiveIf(target = "../actionOnData", value = { "INSERT" }) })
+    @Documentation("Insert the records with the APPEND_VALUES hint, a direct-path insert above the high water mark of the "
+            + "table. The table is locked until each batch is committed, so the records are committed after each write "
+            + "whatever the commit mode.")
+    private boolean oracleAppendValues = false;
+
     public ActionOnData getActionOnData() {
         if (actionOnData == null || actionOnData.isEmpty()) {
             throw new IllegalArgumentException("label on data is required");
@@ -23,7 +23,7 @@ import java.io.Serializable;
 import static org.talend.sdk.component.api.configuration.ui.layout.GridLayout.FormType.ADVANCED;
 
 @Data
-@GridLayout(names = ADVANCED, value = { @GridLayout.Row("fetchSize") })
+@GridLayout(names = ADVANCED, value = { @GridLayout.Row("fetchSize"), @GridLayout.Row("prefetchSize") })
 @Documentation("Advanced common dataset configuration")
 public class AdvancedCommon implements Serializable {
 
@@ -31,7 +31,13 @@ public class AdvancedCommon implements Serializable {
     @Min(0)
     @Documentation("Gives the JDBC driver a hint as to the number of rows that should be fetched from "
             + "the database when more rows are needed for ResultSet objects generated by this Statement.\n"
-            + "If the value specified is zero, then the hint is ignored.")
+            + "If the value specified is zero, a default fetch size allowing the database to stream the rows is used.")
     private int fetchSize = 1000;
 
+    @Option
+    @Min(0)
+    @Documentation("Number of records read ahead by a background thread while the previous ones are processed.\n"
+            + "If the value specified is zero, the records are read when they are requested.")
+    private int prefetchSize = 0;
+
 }
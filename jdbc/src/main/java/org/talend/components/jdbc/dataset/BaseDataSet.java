@@ -24,4 +24,6 @@ public interface BaseDataSet extends Serializable {
 
     int getFetchSize();
 
+    int getPrefetchSize();
+
 }
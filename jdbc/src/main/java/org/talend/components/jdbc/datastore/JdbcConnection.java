@@ -37,7 +37,8 @@ import static org.talend.components.jdbc.service.UIActionService.ACTION_LIST_SUP
 @GridLayout({ @GridLayout.Row({ "dbType", "handler" }), @GridLayout.Row("jdbcUrl"), @GridLayout.Row("userId"),
         @GridLayout.Row("password") })
 @GridLayout(names = GridLayout.FormType.ADVANCED, value = { @GridLayout.Row("connectionTimeOut"),
-        @GridLayout.Row("connectionValidationTimeOut") })
+        @GridLayout.Row("connectionValidationTimeOut"), @GridLayout.Row("poolSize"), @GridLayout.Row("idleTimeOut"),
+        @GridLayout.Row("maxLifetime") })
 @DataStore("JdbcConnection")
 @Checkable(UIActionService.ACTION_BASIC_HEALTH_CHECK)
 @Documentation("A connection to a data base")
@@ -81,4 +82,22 @@ public class JdbcConnection implements Serializable {
     @Documentation("Sets the maximum number of seconds that the pool will wait for a connection to be validated as alive.")
     private long connectionValidationTimeOut = 10;
 
+    @Min(1)
+    @Option
+    @Documentation("Set the number of connections kept in the pool shared by all the components using this connection in the same "
+            + "JVM. The pool grows beyond this size when the components sharing it need more connections at the same time.")
+    private int poolSize = 1;
+
+    @Min(0)
+    @Option
+    @Documentation("Set the maximum number of seconds that a connection is allowed to sit idle in the pool. "
+            + "0 means that idle connections are never removed from the pool.")
+    private long idleTimeOut = 600;
+
+    @Min(0)
+    @Option
+    @Documentation("Set the maximum number of seconds that a connection can live in the pool before being retired. "
+            + "0 means no maximum lifetime.")
+    private long maxLifetime = 1800;
+
 }
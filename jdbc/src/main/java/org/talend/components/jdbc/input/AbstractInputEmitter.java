@@ -15,6 +15,7 @@ package org.talend.components.jdbc.input;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.ErrorFactory;
 import org.talend.components.jdbc.configuration.InputConfig;
+import org.talend.components.jdbc.output.platforms.PlatformFactory;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.input.Producer;
@@ -26,15 +27,22 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.io.Serializable;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 
 import static java.sql.ResultSetMetaData.columnNoNulls;
+import static java.util.Collections.emptyList;
 import static org.talend.components.jdbc.ErrorFactory.toIllegalStateException;
 import static org.talend.sdk.component.api.record.Schema.Type.BOOLEAN;
 import static org.talend.sdk.component.api.record.Schema.Type.BYTES;
@@ -49,6 +57,10 @@ import static org.talend.sdk.component.api.record.Schema.Type.STRING;
 @Slf4j
 public abstract class AbstractInputEmitter implements Serializable {
 
+    private static final Object END = new Object();
+
+    private static final long PREFETCH_STOP_TIMEOUT = 5000;
+
     private final InputConfig inputConfig;
 
     private RecordBuilderFactory recordBuilderFactory;
@@ -67,6 +79,30 @@ public abstract class AbstractInputEmitter implements Serializable {
 
     private transient Schema schema;
 
+    private transient ColumnReader[] columnReaders;
+
+    private WatermarkCheckpoint checkpoint;
+
+    private int watermarkIndex;
+
+    private transient volatile Object highWaterMark;
+
+    private boolean exhausted;
+
+    private transient BlockingQueue<Object> prefetched;
+
+    private transient Thread prefetcher;
+
+    private transient AtomicReference<RuntimeException> prefetchError;
+
+    /**
+     * The prefetching failure already thrown by {@link #next()}, the prefetcher is stopped and the queue stays empty. It is
+     * not an end of the result, the watermark must not be saved.
+     */
+    private transient RuntimeException prefetchFailure;
+
+    private transient volatile boolean cancelled;
+
     AbstractInputEmitter(final InputConfig inputConfig, final JdbcService jdbcDriversService,
             final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage) {
         this.inputConfig = inputConfig;
@@ -83,144 +119,256 @@ public abstract class AbstractInputEmitter implements Serializable {
         if (jdbcDriversService.isNotReadOnlySQLQuery(inputConfig.getDataSet().getQuery())) {
             throw new IllegalArgumentException(i18n.errorUnauthorizedQuery());
         }
+        if (inputConfig.isIncremental()) {
+            if (inputConfig.getCheckpointFile() == null || inputConfig.getCheckpointFile().trim().isEmpty()) {
+                throw new IllegalArgumentException(i18n.errorEmptyCheckpointFile());
+            }
+            checkpoint = new WatermarkCheckpoint(inputConfig.getCheckpointFile().trim(), inputConfig.getWatermarkColumn().trim(),
+                    i18n);
+        }
 
         try {
             dataSource = jdbcDriversService.createDataSource(inputConfig.getDataSet().getConnection());
             connection = dataSource.getConnection();
-            statement = connection.createStatement();
-            statement.setFetchSize(inputConfig.getDataSet().getFetchSize());
-            resultSet = statement.executeQuery(inputConfig.getDataSet().getQuery());
+            String query = getQuery();
+            final List<Serializable> parameters = new ArrayList<>(getQueryParameters());
+            if (checkpoint != null) {
+                final Serializable watermark = checkpoint.load();
+                query = incrementalQuery(query, watermark != null);
+                if (watermark != null) {
+                    parameters.add(watermark);
+                }
+                log.debug("incremental read of column {} from watermark {}", inputConfig.getWatermarkColumn(), watermark);
+            }
+            // always prepared, some drivers only stream the result of a prepared statement
+            final PreparedStatement preparedStatement = PlatformFactory.get(inputConfig.getDataSet().getConnection(), i18n)
+                    .prepareStreamingStatement(connection, query, inputConfig.getDataSet().getFetchSize());
+            statement = preparedStatement;
+            for (int i = 0; i < parameters.size(); i++) {
+                preparedStatement.setObject(i + 1, parameters.get(i));
+            }
+            resultSet = preparedStatement.executeQuery();
+            if (checkpoint != null) {
+                watermarkIndex = resultSet.findColumn(inputConfig.getWatermarkColumn().trim());
+            }
         } catch (final SQLException e) {
             throw toIllegalStateException(e);
         }
+
+        if (inputConfig.getDataSet().getPrefetchSize() > 0) {
+            prefetched = new ArrayBlockingQueue<>(inputConfig.getDataSet().getPrefetchSize());
+            prefetchError = new AtomicReference<>();
+            prefetcher = new Thread(this::prefetch, "jdbc-input-prefetch");
+            prefetcher.setDaemon(true);
+            prefetcher.start();
+        }
+    }
+
+    /**
+     * @return the query to execute, by default the dataset query
+     */
+    protected String getQuery() {
+        return inputConfig.getDataSet().getQuery();
+    }
+
+    /**
+     * Wrap the query to read only the rows beyond the previous watermark, ordered by the watermark column so that the last
+     * row read holds the new high-water mark. Rows with a null watermark are only read by the first run.
+     */
+    private String incrementalQuery(final String query, final boolean fromWatermark) {
+        final String column = PlatformFactory.get(inputConfig.getDataSet().getConnection(), i18n)
+                .identifier(inputConfig.getWatermarkColumn().trim());
+        return "SELECT * FROM (" + query + ") wm" + (fromWatermark ? " WHERE " + column + " > ?" : "") + " ORDER BY "
+                + column;
+    }
+
+    /**
+     * @return the parameters to bind to the query
+     */
+    protected List<? extends Serializable> getQueryParameters() {
+        return emptyList();
     }
 
     @Producer
     public Record next() {
+        if (prefetcher == null) {
+            final Record record = readRecord();
+            exhausted = record == null;
+            return record;
+        }
+        if (exhausted) {
+            return null;
+        }
+        if (prefetchFailure != null) {
+            throw prefetchFailure;
+        }
+
+        final Object next;
+        try {
+            next = prefetched.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        if (next == END) {
+            exhausted = true;
+            return null;
+        }
+        if (next instanceof RuntimeException) {
+            prefetchError.compareAndSet((RuntimeException) next, null);
+            prefetchFailure = (RuntimeException) next;
+            throw prefetchFailure;
+        }
+        return (Record) next;
+    }
+
+    /**
+     * Read ahead the records in a bounded queue until the end of the result, a failure or the cancellation by
+     * {@link #release()}.
+     */
+    private void prefetch() {
+        try {
+            Record record;
+            do {
+                record = readRecord();
+                prefetched.put(record == null ? END : record);
+            } while (record != null && !cancelled);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final RuntimeException e) {
+            if (cancelled) {
+                log.debug("prefetching stopped by the release of the input", e);
+                return;
+            }
+            prefetchError.set(e);
+            try {
+                prefetched.put(e);
+            } catch (final InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Record readRecord() {
         try {
             if (!resultSet.next()) {
                 return null;
             }
 
-            final ResultSetMetaData metaData = resultSet.getMetaData();
-            if (schema == null) {
+            if (columnReaders == null) {
+                final ResultSetMetaData metaData = resultSet.getMetaData();
                 final Schema.Builder schemaBuilder = recordBuilderFactory.newSchemaBuilder(RECORD);
-                IntStream.rangeClosed(1, metaData.getColumnCount()).forEach(index -> addField(schemaBuilder, metaData, index));
+                columnReaders = IntStream.rangeClosed(1, metaData.getColumnCount())
+                        .mapToObj(index -> createColumnReader(schemaBuilder, metaData, index)).toArray(ColumnReader[]::new);
                 schema = schemaBuilder.build();
             }
 
             final Record.Builder recordBuilder = recordBuilderFactory.newRecordBuilder(schema);
-            IntStream.rangeClosed(1, metaData.getColumnCount()).forEach(index -> addColumn(recordBuilder, metaData, index));
+            for (final ColumnReader columnReader : columnReaders) {
+                columnReader.read(resultSet, recordBuilder);
+            }
+            if (checkpoint != null) {
+                final Object watermark = resultSet.getObject(watermarkIndex);
+                if (watermark != null) {
+                    highWaterMark = watermark;
+                }
+            }
             return recordBuilder.build();
         } catch (final SQLException e) {
             throw toIllegalStateException(e);
         }
     }
 
-    private void addField(final Schema.Builder builder, final ResultSetMetaData metaData, final int columnIndex) {
+    /**
+     * Resolve the schema entry and the typed reader of a column once per result set, so that reading a row don't need any
+     * metadata lookup.
+     */
+    private ColumnReader createColumnReader(final Schema.Builder builder, final ResultSetMetaData metaData,
+            final int columnIndex) {
         try {
             final String javaType = metaData.getColumnClassName(columnIndex);
             final int sqlType = metaData.getColumnType(columnIndex);
             final Schema.Entry.Builder entryBuilder = recordBuilderFactory.newEntryBuilder();
             entryBuilder.withName(metaData.getColumnName(columnIndex))
                     .withNullable(metaData.isNullable(columnIndex) != columnNoNulls);
+            final Schema.Entry entry;
+            final ColumnReader reader;
             switch (sqlType) {
             case java.sql.Types.SMALLINT:
             case java.sql.Types.TINYINT:
             case java.sql.Types.INTEGER:
                 if (javaType.equals(Integer.class.getName())) {
-                    builder.withEntry(entryBuilder.withType(INT).build());
+                    entry = entryBuilder.withType(INT).build();
+                    reader = (resultSet, record) -> {
+                        final int value = resultSet.getInt(columnIndex);
+                        if (!resultSet.wasNull()) {
+                            record.withInt(entry, value);
+                        }
+                    };
                 } else {
-                    builder.withEntry(entryBuilder.withType(LONG).build());
+                    entry = entryBuilder.withType(LONG).build();
+                    reader = (resultSet, record) -> {
+                        final long value = resultSet.getLong(columnIndex);
+                        if (!resultSet.wasNull()) {
+                            record.withLong(entry, value);
+                        }
+                    };
                 }
                 break;
             case java.sql.Types.FLOAT:
             case java.sql.Types.REAL:
-                builder.withEntry(entryBuilder.withType(FLOAT).build());
-                break;
-            case java.sql.Types.DOUBLE:
-                builder.withEntry(entryBuilder.withType(DOUBLE).build());
-                break;
-            case java.sql.Types.BOOLEAN:
-                builder.withEntry(entryBuilder.withType(BOOLEAN).build());
-                break;
-            case java.sql.Types.TIME:
-            case java.sql.Types.DATE:
-            case java.sql.Types.TIMESTAMP:
-                builder.withEntry(entryBuilder.withType(DATETIME).build());
-                break;
-            case java.sql.Types.BINARY:
-            case java.sql.Types.VARBINARY:
-            case Types.LONGVARBINARY:
-                builder.withEntry(entryBuilder.withType(BYTES).build());
-                break;
-            case java.sql.Types.BIGINT:
-            case java.sql.Types.DECIMAL:
-            case java.sql.Types.NUMERIC:
-            case java.sql.Types.VARCHAR:
-            case java.sql.Types.LONGVARCHAR:
-            case java.sql.Types.CHAR:
-            default:
-                builder.withEntry(entryBuilder.withType(STRING).build());
-                break;
-            }
-        } catch (final SQLException e) {
-            throw toIllegalStateException(e);
-        }
-    }
-
-    private void addColumn(final Record.Builder builder, final ResultSetMetaData metaData, final int columnIndex) {
-        try {
-            final String javaType = metaData.getColumnClassName(columnIndex);
-            final int sqlType = metaData.getColumnType(columnIndex);
-            final Object value = resultSet.getObject(columnIndex);
-            final Schema.Entry.Builder entryBuilder = recordBuilderFactory.newEntryBuilder();
-            entryBuilder.withName(metaData.getColumnName(columnIndex))
-                    .withNullable(metaData.isNullable(columnIndex) != columnNoNulls);
-            switch (sqlType) {
-            case java.sql.Types.SMALLINT:
-            case java.sql.Types.TINYINT:
-            case java.sql.Types.INTEGER:
-                if (value != null) {
-                    if (javaType.equals(Integer.class.getName())) {
-                        builder.withInt(entryBuilder.withType(INT).build(), (Integer) value);
-                    } else {
-                        builder.withLong(entryBuilder.withType(LONG).build(), (Long) value);
+                entry = entryBuilder.withType(FLOAT).build();
+                reader = (resultSet, record) -> {
+                    final float value = resultSet.getFloat(columnIndex);
+                    if (!resultSet.wasNull()) {
+                        record.withFloat(entry, value);
                     }
-                }
-                break;
-            case java.sql.Types.FLOAT:
-            case java.sql.Types.REAL:
-                if (value != null) {
-                    builder.withFloat(entryBuilder.withType(FLOAT).build(), (Float) value);
-                }
+                };
                 break;
             case java.sql.Types.DOUBLE:
-                if (value != null) {
-                    builder.withDouble(entryBuilder.withType(DOUBLE).build(), (Double) value);
-                }
+                entry = entryBuilder.withType(DOUBLE).build();
+                reader = (resultSet, record) -> {
+                    final double value = resultSet.getDouble(columnIndex);
+                    if (!resultSet.wasNull()) {
+                        record.withDouble(entry, value);
+                    }
+                };
                 break;
             case java.sql.Types.BOOLEAN:
-                if (value != null) {
-                    builder.withBoolean(entryBuilder.withType(BOOLEAN).build(), (Boolean) value);
-                }
+                entry = entryBuilder.withType(BOOLEAN).build();
+                reader = (resultSet, record) -> {
+                    final boolean value = resultSet.getBoolean(columnIndex);
+                    if (!resultSet.wasNull()) {
+                        record.withBoolean(entry, value);
+                    }
+                };
                 break;
             case java.sql.Types.DATE:
-                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
-                        value == null ? null : new Date(((java.sql.Date) value).getTime()));
+                entry = entryBuilder.withType(DATETIME).build();
+                reader = (resultSet, record) -> {
+                    final java.sql.Date value = resultSet.getDate(columnIndex);
+                    record.withDateTime(entry, value == null ? null : new Date(value.getTime()));
+                };
                 break;
             case java.sql.Types.TIME:
-                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
-                        value == null ? null : new Date(((java.sql.Time) value).getTime()));
+                entry = entryBuilder.withType(DATETIME).build();
+                reader = (resultSet, record) -> {
+                    final java.sql.Time value = resultSet.getTime(columnIndex);
+                    record.withDateTime(entry, value == null ? null : new Date(value.getTime()));
+                };
                 break;
             case java.sql.Types.TIMESTAMP:
-                builder.withDateTime(entryBuilder.withType(DATETIME).build(),
-                        value == null ? null : new Date(((java.sql.Timestamp) value).getTime()));
+                entry = entryBuilder.withType(DATETIME).build();
+                reader = (resultSet, record) -> {
+                    final java.sql.Timestamp value = resultSet.getTimestamp(columnIndex);
+                    record.withDateTime(entry, value == null ? null : new Date(value.getTime()));
+                };
                 break;
             case java.sql.Types.BINARY:
             case java.sql.Types.VARBINARY:
             case Types.LONGVARBINARY:
-                builder.withBytes(entryBuilder.withType(BYTES).build(), value == null ? null : (byte[]) value);
+                entry = entryBuilder.withType(BYTES).build();
+                reader = (resultSet, record) -> record.withBytes(entry, resultSet.getBytes(columnIndex));
                 break;
             case java.sql.Types.BIGINT:
             case java.sql.Types.DECIMAL:
@@ -229,9 +377,15 @@ public abstract class AbstractInputEmitter implements Serializable {
             case java.sql.Types.LONGVARCHAR:
             case java.sql.Types.CHAR:
             default:
-                builder.withString(entryBuilder.withType(STRING).build(), value == null ? null : String.valueOf(value));
+                entry = entryBuilder.withType(STRING).build();
+                reader = (resultSet, record) -> {
+                    final Object value = resultSet.getObject(columnIndex);
+                    record.withString(entry, value == null ? null : String.valueOf(value));
+                };
                 break;
             }
+            builder.withEntry(entry);
+            return reader;
         } catch (final SQLException e) {
             throw toIllegalStateException(e);
         }
@@ -239,6 +393,7 @@ public abstract class AbstractInputEmitter implements Serializable {
 
     @PreDestroy
     public void release() {
+        stopPrefetching();
         if (resultSet != null) {
             try {
                 resultSet.close();
@@ -253,9 +408,11 @@ public abstract class AbstractInputEmitter implements Serializable {
                 log.warn(i18n.warnStatementCantBeClosed(), e);
             }
         }
+        boolean committed = false;
         if (connection != null) {
             try {
                 connection.commit();
+                committed = true;
             } catch (final SQLException e) {
                 log.error(i18n.errorSQL(e.getErrorCode(), e.getMessage()), e);
                 try {
@@ -273,6 +430,64 @@ public abstract class AbstractInputEmitter implements Serializable {
         if (dataSource != null) {
             dataSource.close();
         }
+        if (committed) {
+            saveWatermark();
+        }
+        final RuntimeException error = prefetchError == null ? null : prefetchError.getAndSet(null);
+        if (error != null) {
+            throw error;
+        }
     }
 
+    /**
+     * Stop the prefetching thread before the result set is closed. The queue is drained to unblock a thread waiting for
+     * room, a thread blocked by the database is unblocked by cancelling the running statement.
+     */
+    private void stopPrefetching() {
+        if (prefetcher == null) {
+            return;
+        }
+        cancelled = true;
+        prefetched.clear();
+        try {
+            prefetcher.join(PREFETCH_STOP_TIMEOUT);
+            if (prefetcher.isAlive() && statement != null) {
+                try {
+                    statement.cancel();
+                } catch (final SQLException e) {
+                    log.debug("can't cancel the input query", e);
+                }
+                prefetched.clear();
+                prefetcher.join(PREFETCH_STOP_TIMEOUT);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (prefetcher.isAlive()) {
+            log.warn("the prefetching thread of the input is still reading after {}ms", 2 * PREFETCH_STOP_TIMEOUT);
+            prefetcher.interrupt();
+        }
+    }
+
+    /**
+     * Persist the new high-water mark once the whole result was read. A partial read keeps the previous watermark, rows
+     * sharing the last value read could be missed otherwise.
+     */
+    private void saveWatermark() {
+        if (checkpoint == null || highWaterMark == null) {
+            return;
+        }
+        if (exhausted) {
+            checkpoint.save(highWaterMark);
+        } else {
+            log.warn("incremental read of column {} stopped before the end of the result, the watermark is not updated",
+                    inputConfig.getWatermarkColumn());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+
+        void read(ResultSet resultSet, Record.Builder record) throws SQLException;
+    }
 }
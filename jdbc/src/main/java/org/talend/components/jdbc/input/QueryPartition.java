@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+/**
+ * A partition of a table read. The predicate is appended to the input query where clause and its parameters are bound
+ * in order.
+ */
+@Data
+public class QueryPartition implements Serializable {
+
+    private final String predicate;
+
+    private final List<Serializable> parameters;
+
+    /**
+     * Build the contiguous ranges delimited by ordered boundaries. The first and the last range are left open so that the
+     * values out of the boundaries, inserted after the boundaries computation for example, are read too.
+     *
+     * @param expression the column or the expression compared to the boundaries
+     * @param placeholder the parameter placeholder, <code>?</code> or a function converting the bound parameter
+     * @param boundaries the ordered and distinct boundaries
+     * @param nullable true to read the null values in the first range
+     * @return the ranges, empty when there is no boundary
+     */
+    public static List<QueryPartition> ranges(final String expression, final String placeholder,
+            final List<? extends Serializable> boundaries, final boolean nullable) {
+        if (boundaries.isEmpty()) {
+            return emptyList();
+        }
+
+        final List<QueryPartition> ranges = new ArrayList<>(boundaries.size() + 1);
+        final String first = expression + " < " + placeholder;
+        ranges.add(new QueryPartition(nullable ? "(" + first + " OR " + expression + " IS NULL)" : first,
+                new ArrayList<>(singletonList(boundaries.get(0)))));
+        for (int i = 1; i < boundaries.size(); i++) {
+            final List<Serializable> parameters = new ArrayList<>(2);
+            parameters.add(boundaries.get(i - 1));
+            parameters.add(boundaries.get(i));
+            ranges.add(new QueryPartition(expression + " >= " + placeholder + " AND " + expression + " < " + placeholder,
+                    parameters));
+        }
+        ranges.add(new QueryPartition(expression + " >= " + placeholder,
+                new ArrayList<>(singletonList(boundaries.get(boundaries.size() - 1)))));
+        return ranges;
+    }
+
+}
@@ -13,30 +13,92 @@
 package org.talend.components.jdbc.input;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.talend.components.jdbc.configuration.InputFilter;
 import org.talend.components.jdbc.configuration.InputTableNameConfig;
-import org.talend.components.jdbc.dataset.TableNameDataset;
+import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.output.platforms.PlatformFactory;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
-import org.talend.sdk.component.api.component.Icon;
-import org.talend.sdk.component.api.component.Version;
-import org.talend.sdk.component.api.configuration.Option;
-import org.talend.sdk.component.api.input.Emitter;
-import org.talend.sdk.component.api.meta.Documentation;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
 import lombok.extern.slf4j.Slf4j;
 
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Worker of {@link TableNameInputMapper}, read the whole table or a single partition of it. Only the selected columns are
+ * read and the filters are applied by the database.
+ */
 @Slf4j
-@Version
-@Icon(value = Icon.IconType.DATASTORE)
-@Emitter(name = "TableNameInput")
-@Documentation("JDBC input using table name")
 public class TableNameInputEmitter extends AbstractInputEmitter implements Serializable {
 
-    public TableNameInputEmitter(@Option("configuration") final InputTableNameConfig config, final JdbcService jdbcDriversService,
-            final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage) {
+    private final InputTableNameConfig config;
+
+    private final I18nMessage i18n;
+
+    private final QueryPartition partition;
+
+    public TableNameInputEmitter(final InputTableNameConfig config, final JdbcService jdbcDriversService,
+            final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage, final QueryPartition partition) {
         super(config, jdbcDriversService, recordBuilderFactory, i18nMessage);
+        this.config = config;
+        this.i18n = i18nMessage;
+        this.partition = partition;
+    }
+
+    @Override
+    protected String getQuery() {
+        final Platform platform = PlatformFactory.get(config.getDataSet().getConnection(), i18n);
+        final List<String> predicates = new ArrayList<>();
+        if (config.getFilters() != null) {
+            config.getFilters().stream().map(filter -> filter.getOperator().render(platform.identifier(filter.getColumn())))
+                    .forEach(predicates::add);
+        }
+        if (partition != null) {
+            predicates.add(partition.getPredicate());
+        }
+        return "SELECT " + getColumns(platform) + " FROM " + platform.identifier(config.getDataSet().getTableName())
+                + (predicates.isEmpty() ? "" : predicates.stream().collect(joining(" AND ", " WHERE ", "")));
+    }
+
+    @Override
+    protected List<? extends Serializable> getQueryParameters() {
+        final List<Serializable> parameters = new ArrayList<>();
+        if (config.getFilters() != null) {
+            config.getFilters().stream().filter(filter -> filter.getOperator().hasValue()).map(this::getValue)
+                    .forEach(parameters::add);
+        }
+        if (partition != null) {
+            parameters.addAll(partition.getParameters());
+        }
+        return parameters;
+    }
+
+    /**
+     * @return the selected columns, the watermark column of an incremental read is always selected
+     */
+    private String getColumns(final Platform platform) {
+        if (config.getColumns() == null || config.getColumns().isEmpty()) {
+            return "*";
+        }
+
+        final List<String> columns = new ArrayList<>(config.getColumns());
+        if (config.isIncremental() && columns.stream().noneMatch(config.getWatermarkColumn().trim()::equalsIgnoreCase)) {
+            columns.add(config.getWatermarkColumn().trim());
+        }
+        return columns.stream().map(platform::identifier).collect(joining(", "));
+    }
+
+    private Serializable getValue(final InputFilter filter) {
+        try {
+            return filter.getType().parse(filter.getValue() == null ? "" : filter.getValue());
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    i18n.errorInvalidFilterValue(filter.getValue(), filter.getColumn(), filter.getType().name()), e);
+        }
     }
 
 }
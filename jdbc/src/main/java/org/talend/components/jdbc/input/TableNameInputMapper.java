@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.InputTableNameConfig;
+import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.output.platforms.PlatformFactory;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.component.Icon;
+import org.talend.sdk.component.api.component.Version;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.input.Assessor;
+import org.talend.sdk.component.api.input.Emitter;
+import org.talend.sdk.component.api.input.PartitionMapper;
+import org.talend.sdk.component.api.input.PartitionSize;
+import org.talend.sdk.component.api.input.Split;
+import org.talend.sdk.component.api.meta.Documentation;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.talend.components.jdbc.ErrorFactory.toIllegalStateException;
+
+@Slf4j
+@Version
+@Icon(value = Icon.IconType.DATASTORE)
+@PartitionMapper(name = "TableNameInput")
+@Documentation("JDBC input using table name. The table can be read in parallel using ranges of a split column or of the"
+        + " table physical storage.")
+public class TableNameInputMapper implements Serializable {
+
+    private static final int MAX_PARTITIONS = 1024;
+
+    private final InputTableNameConfig configuration;
+
+    private final JdbcService jdbcService;
+
+    private final RecordBuilderFactory recordBuilderFactory;
+
+    private final I18nMessage i18n;
+
+    private QueryPartition partition;
+
+    private Long estimatedBytes;
+
+    public TableNameInputMapper(@Option("configuration") final InputTableNameConfig configuration, final JdbcService jdbcService,
+            final RecordBuilderFactory recordBuilderFactory, final I18nMessage i18nMessage) {
+        this.configuration = configuration;
+        this.jdbcService = jdbcService;
+        this.recordBuilderFactory = recordBuilderFactory;
+        this.i18n = i18nMessage;
+    }
+
+    /**
+     * @return the estimated size in bytes to read, the number of rows multiplied by the average row size of the table
+     * statistics. The runner passes the partition size to {@link #split(long)} in bytes too. When the table is not split
+     * it is read by a single worker and the database is not queried.
+     */
+    @Assessor
+    public long estimateSize() {
+        if (!isSplittable()) {
+            return 1;
+        }
+        if (estimatedBytes == null) {
+            try (final JdbcService.JdbcDatasource dataSource = jdbcService
+                    .createDataSource(configuration.getDataSet().getConnection());
+                    final Connection connection = dataSource.getConnection()) {
+                final Platform platform = getPlatform();
+                final String table = configuration.getDataSet().getTableName();
+                estimatedBytes = platform.estimateRowCount(connection, table) * platform.estimateRowSize(connection, table);
+            } catch (final SQLException e) {
+                throw toIllegalStateException(e);
+            }
+        }
+
+        return estimatedBytes;
+    }
+
+    @Split
+    public List<TableNameInputMapper> split(@PartitionSize final long bundleSize) {
+        if (partition != null || !isSplittable()) {
+            return singletonList(this);
+        }
+
+        final long bytes = estimateSize();
+        final long partitions = configuration.getNumPartitions() > 0 ? configuration.getNumPartitions()
+                : Math.min(MAX_PARTITIONS, bundleSize <= 0 ? 1 : (bytes + bundleSize - 1) / bundleSize);
+        if (partitions <= 1) {
+            return singletonList(this);
+        }
+
+        final Platform platform = getPlatform();
+        try (final JdbcService.JdbcDatasource dataSource = jdbcService.createDataSource(configuration.getDataSet().getConnection());
+                final Connection connection = dataSource.getConnection()) {
+            final List<QueryPartition> ranges = hasSplitColumn() ? splitColumnRanges(platform, connection, (int) partitions)
+                    : platform.splitByStorage(connection, configuration.getDataSet().getTableName(),
+                            jdbcService.getPrimaryKeys(configuration.getDataSet().getConnection(), connection,
+                                    configuration.getDataSet().getTableName()),
+                            (int) partitions);
+            if (ranges.size() <= 1) {
+                return singletonList(this);
+            }
+
+            log.debug("table {} split in {} partitions", configuration.getDataSet().getTableName(), ranges.size());
+            final long bytesPerPartition = Math.max(1, bytes / ranges.size());
+            return ranges.stream().map(range -> {
+                final TableNameInputMapper mapper = new TableNameInputMapper(configuration, jdbcService, recordBuilderFactory,
+                        i18n);
+                mapper.partition = range;
+                mapper.estimatedBytes = bytesPerPartition;
+                return mapper;
+            }).collect(toList());
+        } catch (final SQLException e) {
+            throw toIllegalStateException(e);
+        }
+    }
+
+    private List<QueryPartition> splitColumnRanges(final Platform platform, final Connection connection, final int partitions)
+            throws SQLException {
+        final String column = platform.identifier(configuration.getSplitColumn());
+        try (final Statement statement = connection.createStatement();
+                final ResultSet bounds = statement.executeQuery("SELECT MIN(" + column + "), MAX(" + column + ") FROM "
+                        + platform.identifier(configuration.getDataSet().getTableName()))) {
+            if (!bounds.next() || bounds.getObject(1) == null) {
+                return emptyList();
+            }
+
+            return ranges(column, bounds.getMetaData().getColumnType(1), bounds.getMetaData().getColumnTypeName(1),
+                    bounds.getObject(1), bounds.getObject(2), partitions);
+        }
+    }
+
+    @Emitter
+    public TableNameInputEmitter createWorker() {
+        return new TableNameInputEmitter(configuration, jdbcService, recordBuilderFactory, i18n, partition);
+    }
+
+    /**
+     * An incremental read is never split, the rows must be read in the watermark order by a single worker.
+     */
+    private boolean isSplittable() {
+        return !configuration.isIncremental() && (hasSplitColumn() || configuration.isSplitByStorage());
+    }
+
+    private boolean hasSplitColumn() {
+        return configuration.getSplitColumn() != null && !configuration.getSplitColumn().trim().isEmpty();
+    }
+
+    private Platform getPlatform() {
+        return PlatformFactory.get(configuration.getDataSet().getConnection(), i18n);
+    }
+
+    /**
+     * Split [min, max] in contiguous ranges. The first and the last range are left open so that null values and values
+     * inserted after the bounds computation are read too.
+     */
+    private List<QueryPartition> ranges(final String column, final int sqlType, final String typeName, final Object min,
+            final Object max, final int partitions) {
+        final RangeType type = RangeType.of(sqlType);
+        if (type == null) {
+            throw new IllegalArgumentException(i18n.errorUnsupportedSplitColumnType(typeName, configuration.getSplitColumn()));
+        }
+
+        final BigDecimal lower = type.toDecimal(min);
+        final BigDecimal step = type.toDecimal(max).subtract(lower).divide(BigDecimal.valueOf(partitions), 10,
+                RoundingMode.FLOOR);
+        final List<Serializable> boundaries = new ArrayList<>();
+        for (int i = 1; i < partitions; i++) {
+            final Serializable boundary = type.fromDecimal(lower.add(step.multiply(BigDecimal.valueOf(i))));
+            if (!boundaries.contains(boundary) && !boundary.equals(type.fromDecimal(lower))) {
+                boundaries.add(boundary);
+            }
+        }
+        return QueryPartition.ranges(column, "?", boundaries, true);
+    }
+
+    private enum RangeType {
+        INTEGRAL {
+
+            @Override
+            BigDecimal toDecimal(final Object value) {
+                return new BigDecimal(value.toString());
+            }
+
+            @Override
+            Serializable fromDecimal(final BigDecimal value) {
+                return value.setScale(0, RoundingMode.FLOOR).longValueExact();
+            }
+        },
+        DECIMAL {
+
+            @Override
+            BigDecimal toDecimal(final Object value) {
+                return new BigDecimal(value.toString());
+            }
+
+            @Override
+            Serializable fromDecimal(final BigDecimal value) {
+                return value.stripTrailingZeros();
+            }
+        },
+        TEMPORAL {
+
+            @Override
+            BigDecimal toDecimal(final Object value) {
+                return BigDecimal.valueOf(((Date) value).getTime());
+            }
+
+            @Override
+            Serializable fromDecimal(final BigDecimal value) {
+                return new Timestamp(value.setScale(0, RoundingMode.FLOOR).longValueExact());
+            }
+        };
+
+        abstract BigDecimal toDecimal(final Object value);
+
+        abstract Serializable fromDecimal(final BigDecimal value);
+
+        static RangeType of(final int sqlType) {
+            switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return INTEGRAL;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return DECIMAL;
+            case Types.DATE:
+            case Types.TIMESTAMP:
+                return TEMPORAL;
+            default:
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.input;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.service.I18nMessage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Properties;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * High-water mark of an incremental read, persisted in a local properties file between runs. The value is stored with its
+ * type so that it is bound back to the query with the same JDBC type.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class WatermarkCheckpoint implements Serializable {
+
+    private static final String COLUMN = "column";
+
+    private static final String TYPE = "type";
+
+    private static final String VALUE = "value";
+
+    private final String file;
+
+    private final String column;
+
+    private final I18nMessage i18n;
+
+    /**
+     * @return the watermark of the previous run, or null when the checkpoint file doesn't exist yet
+     */
+    Serializable load() {
+        final Path path = Paths.get(file);
+        if (!Files.exists(path)) {
+            return null;
+        }
+
+        final Properties properties = new Properties();
+        try (final InputStream input = Files.newInputStream(path)) {
+            properties.load(input);
+        } catch (final IOException e) {
+            throw new IllegalStateException(i18n.errorCheckpointCantBeRead(file, e.getMessage()), e);
+        }
+        if (!column.equalsIgnoreCase(properties.getProperty(COLUMN, column))) {
+            throw new IllegalArgumentException(i18n.errorCheckpointColumnMismatch(file, properties.getProperty(COLUMN), column));
+        }
+        final String type = properties.getProperty(TYPE);
+        final String value = properties.getProperty(VALUE);
+        if (type == null || value == null) {
+            return null;
+        }
+        try {
+            return Type.valueOf(type).parse(value);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalStateException(i18n.errorCheckpointCantBeRead(file, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Replace the checkpoint with the new watermark. The file is written next to the previous one and moved atomically so
+     * that a failing job never leaves a truncated checkpoint.
+     */
+    void save(final Object watermark) {
+        final Type type = Type.of(watermark);
+        final Properties properties = new Properties();
+        properties.setProperty(COLUMN, column);
+        properties.setProperty(TYPE, type.name());
+        properties.setProperty(VALUE, type.format(watermark));
+        final Path path = Paths.get(file).toAbsolutePath();
+        try {
+            Files.createDirectories(path.getParent());
+            final Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try (final OutputStream output = Files.newOutputStream(tmp)) {
+                properties.store(output, "JDBC input watermark");
+            }
+            try {
+                Files.move(tmp, path, REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (final IOException e) {
+                Files.move(tmp, path, REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            throw new IllegalStateException(i18n.errorCheckpointCantBeWritten(file, e.getMessage()), e);
+        }
+        log.debug("watermark of column {} saved to {}: {}", column, file, properties.getProperty(VALUE));
+    }
+
+    private enum Type {
+        LONG {
+
+            @Override
+            Serializable parse(final String value) {
+                return Long.valueOf(value);
+            }
+        },
+        DECIMAL {
+
+            @Override
+            Serializable parse(final String value) {
+                return new BigDecimal(value);
+            }
+
+            @Override
+            String format(final Object value) {
+                return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString()
+                        : new BigDecimal(value.toString()).toPlainString();
+            }
+        },
+        DATE {
+
+            @Override
+            Serializable parse(final String value) {
+                return Date.valueOf(value);
+            }
+
+            @Override
+            String format(final Object value) {
+                return value instanceof LocalDate ? Date.valueOf((LocalDate) value).toString() : value.toString();
+            }
+        },
+        TIMESTAMP {
+
+            @Override
+            Serializable parse(final String value) {
+                return Timestamp.valueOf(value);
+            }
+
+            @Override
+            String format(final Object value) {
+                if (value instanceof LocalDateTime) {
+                    return Timestamp.valueOf((LocalDateTime) value).toString();
+                }
+                if (value instanceof OffsetDateTime) {
+                    return Timestamp.from(((OffsetDateTime) value).toInstant()).toString();
+                }
+                if (value instanceof ZonedDateTime) {
+                    return Timestamp.from(((ZonedDateTime) value).toInstant()).toString();
+                }
+                return value instanceof Timestamp ? value.toString() : new Timestamp(((java.util.Date) value).getTime()).toString();
+            }
+        },
+        STRING {
+
+            @Override
+            Serializable parse(final String value) {
+                return value;
+            }
+        };
+
+        abstract Serializable parse(final String value);
+
+        String format(final Object value) {
+            return value.toString();
+        }
+
+        static Type of(final Object value) {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return LONG;
+            }
+            if (value instanceof Number) {
+                return DECIMAL;
+            }
+            if (value instanceof Date || value instanceof LocalDate) {
+                return DATE;
+            }
+            if (value instanceof java.util.Date || value instanceof LocalDateTime || value instanceof OffsetDateTime
+                    || value instanceof ZonedDateTime) {
+                return TIMESTAMP;
+            }
+            return STRING;
+        }
+    }
+}
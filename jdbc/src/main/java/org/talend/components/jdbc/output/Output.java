@@ -14,6 +14,7 @@ package org.talend.components.jdbc.output;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.CommitMode;
 import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.output.platforms.Platform;
 import org.talend.components.jdbc.output.statement.QueryManager;
@@ -24,6 +25,7 @@ import org.talend.sdk.component.api.processor.BeforeGroup;
 import org.talend.sdk.component.api.processor.ElementListener;
 import org.talend.sdk.component.api.processor.Input;
 import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
 
 import javax.annotation.PreDestroy;
 import java.io.IOException;
@@ -32,9 +34,12 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.talend.components.jdbc.ErrorFactory.toIllegalStateException;
-import static org.talend.components.jdbc.service.JdbcService.checkTableExistence;
 
 @Slf4j
 public abstract class Output implements Serializable {
@@ -56,6 +61,16 @@ public abstract class Output implements Serializable {
 
     private transient boolean init;
 
+    private transient long bufferedBytes;
+
+    private transient boolean groupTransaction;
+
+    private transient JdbcService.JdbcDatasource transaction;
+
+    private transient ExecutorService writer;
+
+    private transient Future<?> pendingWrite;
+
     public Output(final OutputConfig outputConfig, final JdbcService jdbcService, final I18nMessage i18nMessage) {
         this.configuration = outputConfig;
         this.jdbcService = jdbcService;
@@ -69,6 +84,7 @@ public abstract class Output implements Serializable {
     @BeforeGroup
     public void beforeGroup() {
         this.records = new ArrayList<>();
+        this.bufferedBytes = 0;
     }
 
     @ElementListener
@@ -79,46 +95,195 @@ public abstract class Output implements Serializable {
             lazyInit();
         }
         records.add(record);
+        if (configuration.getMaxFlushSize() > 0) {
+            bufferedBytes += estimateSize(record);
+        }
+        if ((configuration.getMaxFlushRecords() > 0 && records.size() >= configuration.getMaxFlushRecords())
+                || (configuration.getMaxFlushSize() > 0 && bufferedBytes >= configuration.getMaxFlushSize() * 1024 * 1024)) {
+            flush();
+        }
     }
 
     private void lazyInit() throws SQLException {
         this.init = true;
-        this.datasource = jdbcService.createDataSource(configuration.getDataset().getConnection(),
-                configuration.isRewriteBatchedStatements());
+        this.datasource = jdbcService.createDataSource(configuration.getDataset().getConnection(), false,
+                configuration.isRewriteBatchedStatements(), getQueryManager().getMaxConnections(),
+                configuration.getActionOnData() == OutputConfig.ActionOnData.BULK_LOAD);
         if (this.tableExistsCheck == null) {
-            this.tableExistsCheck = checkTableExistence(configuration.getDataset().getTableName(), datasource);
+            this.tableExistsCheck = jdbcService.checkTableExistence(configuration.getDataset().getConnection(),
+                    configuration.getDataset().getTableName(), datasource);
         }
         if (!this.tableExistsCheck && !this.configuration.isCreateTableIfNotExists()) {
             throw new IllegalStateException(this.i18n.errorTaberDoesNotExists(this.configuration.getDataset().getTableName()));
         }
+        if (configuration.isAsyncWrite()) {
+            this.writer = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "jdbc-output-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.groupTransaction = configuration.getCommitMode() == CommitMode.PER_GROUP;
+        if (groupTransaction && getQueryManager().getMaxConnections() > 1) {
+            log.warn("{} uses several connections, the records are committed after each write",
+                    getQueryManager().getClass().getSimpleName());
+            groupTransaction = false;
+        }
+        if (groupTransaction && getQueryManager().isCommitRequiredPerWrite()) {
+            log.warn("{} can't write the table again before a commit, the records are committed after each write",
+                    getQueryManager().getClass().getSimpleName());
+            groupTransaction = false;
+        }
+        if (groupTransaction && configuration.isBisectRejects()) {
+            log.warn("{} commits the records per group, the rejected records are not isolated and a failed batch rolls back"
+                    + " the group", getQueryManager().getClass().getSimpleName());
+        }
     }
 
+    /**
+     * Write the last records of the group and wait for them, the asynchronous writes only overlap the flushes of a group
+     * so that a failure is reported for the group that failed.
+     */
     @AfterGroup
     public void afterGroup() throws SQLException {
+        flush();
+        awaitPendingWrite();
+        if (transaction != null) {
+            try {
+                transaction.commit();
+            } finally {
+                transaction.close();
+                transaction = null;
+            }
+        }
+    }
+
+    /**
+     * Write the buffered records, in the group transaction when the records are committed per group. In asynchronous mode
+     * the records are handed to the writer thread once it is done with the previous ones.
+     */
+    private void flush() throws SQLException {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
         if (!tableExistsCheck && !tableCreated && configuration.isCreateTableIfNotExists()) {
+            // committed on its own, before the group transaction holds the connection
             try (final Connection connection = datasource.getConnection()) {
                 getPlatform().createTableIfNotExist(connection, configuration.getDataset().getTableName(),
                         configuration.getKeys(), configuration.getSortStrategy(), configuration.getSortKeys(),
                         configuration.getDistributionStrategy(), configuration.getDistributionKeys(),
                         configuration.getVarcharLength(), records);
                 tableCreated = true;
+            } finally {
+                jdbcService.invalidateMetadata(configuration.getDataset().getConnection(),
+                        configuration.getDataset().getTableName());
             }
         }
 
+        if (writer != null) {
+            // back pressure, one batch is written while the next one is filled
+            try {
+                awaitPendingWrite();
+            } catch (final RuntimeException e) {
+                records.stream().map(r -> new Reject(e.getMessage(), r)).map(Reject::toString).forEach(log::error);
+                records = new ArrayList<>();
+                bufferedBytes = 0;
+                throw e;
+            }
+        }
+        final List<Record> batch = records;
+        records = new ArrayList<>();
+        bufferedBytes = 0;
+        if (writer == null) {
+            write(batch);
+            return;
+        }
+        pendingWrite = writer.submit(() -> write(batch));
+    }
+
+    private void write(final List<Record> batch) {
         // TODO : handle discarded records
         try {
-            final List<Reject> discards = getQueryManager().execute(records, datasource);
+            final JdbcService.JdbcDatasource target = writeDatasource();
+            final List<Reject> discards = getQueryManager().execute(batch, target);
+            if (target.isRolledBack()) {
+                throw new SQLException(i18n.errorGroupRolledBack());
+            }
             discards.stream().map(Object::toString).forEach(log::error);
         } catch (final SQLException | IOException e) {
-            records.stream().map(r -> new Reject(e.getMessage(), r)).map(Reject::toString).forEach(log::error);
+            batch.stream().map(r -> new Reject(e.getMessage(), r)).map(Reject::toString).forEach(log::error);
+            if (transaction != null) {
+                transaction.close();
+                transaction = null;
+            }
             throw toIllegalStateException(e);
         }
     }
 
+    /**
+     * Wait for the asynchronous write in progress, its failure is rethrown.
+     */
+    private void awaitPendingWrite() {
+        if (pendingWrite == null) {
+            return;
+        }
+        try {
+            pendingWrite.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pendingWrite = null;
+        }
+    }
+
+    private JdbcService.JdbcDatasource writeDatasource() throws SQLException {
+        if (!groupTransaction) {
+            return datasource;
+        }
+        if (transaction == null) {
+            transaction = datasource.transaction();
+        }
+        return transaction;
+    }
+
+    private static long estimateSize(final Record record) {
+        long size = 0;
+        for (final Schema.Entry entry : record.getSchema().getEntries()) {
+            switch (entry.getType()) {
+            case STRING:
+                size += record.getOptionalString(entry.getName()).map(value -> 2L * value.length()).orElse(0L);
+                break;
+            case BYTES:
+                size += record.getOptionalBytes(entry.getName()).map(value -> (long) value.length).orElse(0L);
+                break;
+            default:
+                size += 8;
+            }
+        }
+        return size;
+    }
+
     @PreDestroy
     public void preDestroy() {
-        if (datasource != null) {
-            datasource.close();
+        try {
+            awaitPendingWrite();
+        } finally {
+            if (writer != null) {
+                writer.shutdownNow();
+            }
+            if (transaction != null) {
+                transaction.close();
+            }
+            getQueryManager().close();
+            if (datasource != null) {
+                datasource.close();
+            }
         }
     }
 
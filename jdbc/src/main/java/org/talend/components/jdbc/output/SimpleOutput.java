@@ -17,8 +17,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.output.platforms.Platform;
 import org.talend.components.jdbc.output.platforms.PlatformFactory;
+import org.talend.components.jdbc.output.statement.QueryManager;
 import org.talend.components.jdbc.output.statement.QueryManagerFactory;
-import org.talend.components.jdbc.output.statement.operations.QueryManagerImpl;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.component.Icon;
@@ -37,7 +37,7 @@ import java.io.Serializable;
 @Documentation("JDBC Output component")
 public class SimpleOutput extends Output implements Serializable {
 
-    private QueryManagerImpl queryManager;
+    private QueryManager queryManager;
 
     private Platform platform;
 
@@ -45,7 +45,7 @@ public class SimpleOutput extends Output implements Serializable {
             final I18nMessage i18n) {
         super(configuration, jdbcService, i18n);
         this.platform = PlatformFactory.get(configuration.getDataset().getConnection(), i18n);
-        this.queryManager = QueryManagerFactory.getQueryManager(platform, i18n, configuration);
+        this.queryManager = QueryManagerFactory.getShardedQueryManager(platform, i18n, configuration);
     }
 
 }
\ No newline at end of file
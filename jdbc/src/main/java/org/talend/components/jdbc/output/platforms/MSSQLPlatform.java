@@ -14,12 +14,21 @@ package org.talend.components.jdbc.output.platforms;
 
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.input.QueryPartition;
 import org.talend.components.jdbc.service.I18nMessage;
 
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.joining;
+
 /**
  * https://docs.microsoft.com/fr-fr/sql/t-sql/statements/create-table-transact-sql?view=sql-server-2017
  */
@@ -28,6 +37,14 @@ public class MSSQLPlatform extends Platform {
 
     public static final String MSSQL = "mssql";
 
+    /**
+     * The file and page of a row. <code>%%physloc%%</code> is the page (4 bytes), the file (2 bytes) and the slot (2 bytes)
+     * of the row stored in little endian, the bytes are reversed to get a number ordered as the storage.
+     */
+    private static final String PHYSICAL_PAGE = "CAST(SUBSTRING(%%physloc%%, 6, 1) + SUBSTRING(%%physloc%%, 5, 1)"
+            + " + SUBSTRING(%%physloc%%, 4, 1) + SUBSTRING(%%physloc%%, 3, 1) + SUBSTRING(%%physloc%%, 2, 1)"
+            + " + SUBSTRING(%%physloc%%, 1, 1) AS BIGINT)";
+
     public MSSQLPlatform(final I18nMessage i18n) {
         super(i18n);
     }
@@ -37,6 +54,76 @@ public class MSSQLPlatform extends Platform {
         return MSSQL;
     }
 
+    /**
+     * sql server accept at most 2100 parameters per statement
+     */
+    @Override
+    public int maxQueryParameters() {
+        return 2000;
+    }
+
+    @Override
+    public String buildUpsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatableColumns) {
+        return "MERGE INTO " + identifier(table) + " AS T USING (VALUES "
+                + columns.stream().map(c -> "?").collect(joining(",", "(", ")")) + ") AS S "
+                + columns.stream().map(this::identifier).collect(joining(",", "(", ")")) + " ON "
+                + keys.stream().map(this::identifier).map(c -> "T." + c + " = S." + c).collect(joining(" AND "))
+                + (updatableColumns.isEmpty() ? ""
+                        : " WHEN MATCHED THEN UPDATE SET " + updatableColumns.stream().map(this::identifier)
+                                .map(c -> "T." + c + " = S." + c).collect(joining(",")))
+                + " WHEN NOT MATCHED THEN INSERT " + columns.stream().map(this::identifier).collect(joining(",", "(", ")"))
+                + " VALUES " + columns.stream().map(this::identifier).map(c -> "S." + c).collect(joining(",", "(", ")")) + ";";
+    }
+
+    @Override
+    public boolean supportsNativeUpsert() {
+        return true;
+    }
+
+    @Override
+    public long estimateRowCount(final Connection connection, final String table) throws SQLException {
+        return estimateRowCount(connection, table,
+                "SELECT SUM(p.rows) FROM sys.partitions p WHERE p.object_id = OBJECT_ID(?) AND p.index_id IN (0, 1)",
+                identifier(table));
+    }
+
+    @Override
+    public long estimateRowSize(final Connection connection, final String table) throws SQLException {
+        // pages are 8KB, reading the partition stats requires the VIEW DATABASE STATE permission
+        return estimateRowSize(connection, table,
+                "SELECT SUM(s.used_page_count) * 8192 / NULLIF(SUM(s.row_count), 0) FROM sys.dm_db_partition_stats s"
+                        + " WHERE s.object_id = OBJECT_ID(?) AND s.index_id IN (0, 1)",
+                identifier(table));
+    }
+
+    /**
+     * Split the table in ranges of its physical location. Each range is filtered from a scan of the table, SQL Server
+     * can't seek on <code>%%physloc%%</code>, but the rows are converted and transferred in parallel.
+     */
+    @Override
+    public List<QueryPartition> splitByStorage(final Connection connection, final String table,
+            final List<String> primaryKeys, final int partitions) throws SQLException {
+        final long min;
+        final long max;
+        try (final Statement statement = connection.createStatement();
+                final ResultSet bounds = statement.executeQuery(
+                        "SELECT MIN(" + PHYSICAL_PAGE + "), MAX(" + PHYSICAL_PAGE + ") FROM " + identifier(table))) {
+            if (!bounds.next() || bounds.getObject(1) == null) {
+                return emptyList();
+            }
+            min = bounds.getLong(1);
+            max = bounds.getLong(2);
+        }
+
+        final long step = (max - min) / partitions;
+        final List<Serializable> boundaries = new ArrayList<>(partitions);
+        for (int i = 1; step > 0 && i < partitions; i++) {
+            boundaries.add(min + i * step);
+        }
+        return QueryPartition.ranges(PHYSICAL_PAGE, "?", boundaries, false);
+    }
+
     @Override
     protected String delimiterToken() {
         return "\"";
@@ -116,5 +203,9 @@ public class MSSQLPlatform extends Platform {
 
         // https://docs.microsoft.com/en-us/sql/connect/jdbc/setting-the-connection-properties?view=sql-server-2017
         dataSource.addDataSourceProperty("applicationName", APPLICATION);
+        dataSource.addDataSourceProperty("disableStatementPooling", "false");
+        dataSource.addDataSourceProperty("statementPoolingCacheSize", String.valueOf(STATEMENT_CACHE_SIZE));
+        // read the result from the network as it is consumed instead of buffering it on the client side
+        dataSource.addDataSourceProperty("responseBuffering", "adaptive");
     }
 }
@@ -12,12 +12,18 @@
  */
 package org.talend.components.jdbc.output.platforms;
 
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.service.I18nMessage;
 
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static java.util.stream.Collectors.joining;
+
 @Slf4j
 public class MariaDbPlatform extends Platform {
 
@@ -32,6 +38,79 @@ public class MariaDbPlatform extends Platform {
         return MARIADB;
     }
 
+    @Override
+    public int maxQueryParameters() {
+        return 10000;
+    }
+
+    /**
+     * The keys need to be a primary key or a unique constraint of the table
+     */
+    @Override
+    public String buildUpsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatableColumns) {
+        return "INSERT INTO " + identifier(table) + columns.stream().map(this::identifier).collect(joining(",", "(", ")"))
+                + " VALUES" + columns.stream().map(c -> "?").collect(joining(",", "(", ")")) + " ON DUPLICATE KEY UPDATE "
+                + (updatableColumns.isEmpty() ? keys : updatableColumns).stream().map(this::identifier)
+                        .map(c -> c + " = VALUES(" + c + ")").collect(joining(","));
+    }
+
+    @Override
+    public boolean supportsNativeUpsert() {
+        return true;
+    }
+
+    @Override
+    public long estimateRowCount(final Connection connection, final String table) throws SQLException {
+        return estimateRowCount(connection, table,
+                "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                table);
+    }
+
+    @Override
+    public long estimateRowSize(final Connection connection, final String table) throws SQLException {
+        return estimateRowSize(connection, table,
+                "SELECT AVG_ROW_LENGTH FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                table);
+    }
+
+    /**
+     * Sample the primary key on the database side, window functions avoid to transfer the whole key column. Older
+     * versions without window functions fallback to the client side sampling.
+     */
+    @Override
+    protected List<Serializable> samplePrimaryKey(final Connection connection, final String table, final String key,
+            final long step, final int limit) throws SQLException {
+        try {
+            return samplePrimaryKeyWithRowNumber(connection, table, key, step, limit);
+        } catch (final SQLException e) {
+            log.debug("can't sample the primary key of table " + table + " using window functions", e);
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            return super.samplePrimaryKey(connection, table, key, step, limit);
+        }
+    }
+
+    @Override
+    public void addDataSourceProperties(final HikariDataSource dataSource) {
+        super.addDataSourceProperties(dataSource);
+
+        // https://mariadb.com/kb/en/library/about-mariadb-connector-j/#optional-url-parameters
+        dataSource.addDataSourceProperty("cachePrepStmts", "true");
+        dataSource.addDataSourceProperty("prepStmtCacheSize", String.valueOf(STATEMENT_CACHE_SIZE));
+        dataSource.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        dataSource.addDataSourceProperty("useServerPrepStmts", "true");
+    }
+
+    /**
+     * Bulk load through <code>LOAD DATA LOCAL INFILE</code>
+     */
+    @Override
+    public boolean supportsBulkLoad() {
+        return true;
+    }
+
     @Override
     protected String delimiterToken() {
         return "`";
@@ -16,9 +16,14 @@ import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.service.I18nMessage;
 
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static java.util.stream.Collectors.joining;
+
 /**
  * syntax detail can be found at <a href=
  * "https://dev.mysql.com/doc/refman/8.0/en/create-table.html">https://dev.mysql.com/doc/refman/8.0/en/create-table.html</a>
@@ -37,6 +42,61 @@ public class MySQLPlatform extends Platform {
         return MYSQL;
     }
 
+    @Override
+    public int maxQueryParameters() {
+        return 10000;
+    }
+
+    /**
+     * The keys need to be a primary key or a unique constraint of the table
+     */
+    @Override
+    public String buildUpsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatableColumns) {
+        return "INSERT INTO " + identifier(table) + columns.stream().map(this::identifier).collect(joining(",", "(", ")"))
+                + " VALUES" + columns.stream().map(c -> "?").collect(joining(",", "(", ")")) + " ON DUPLICATE KEY UPDATE "
+                + (updatableColumns.isEmpty() ? keys : updatableColumns).stream().map(this::identifier)
+                        .map(c -> c + " = VALUES(" + c + ")").collect(joining(","));
+    }
+
+    @Override
+    public boolean supportsNativeUpsert() {
+        return true;
+    }
+
+    @Override
+    public long estimateRowCount(final Connection connection, final String table) throws SQLException {
+        // innodb row count is an estimation
+        return estimateRowCount(connection, table,
+                "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                table);
+    }
+
+    @Override
+    public long estimateRowSize(final Connection connection, final String table) throws SQLException {
+        return estimateRowSize(connection, table,
+                "SELECT AVG_ROW_LENGTH FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                table);
+    }
+
+    /**
+     * Sample the primary key on the database side, window functions avoid to transfer the whole key column. Older
+     * versions without window functions fallback to the client side sampling.
+     */
+    @Override
+    protected List<Serializable> samplePrimaryKey(final Connection connection, final String table, final String key,
+            final long step, final int limit) throws SQLException {
+        try {
+            return samplePrimaryKeyWithRowNumber(connection, table, key, step, limit);
+        } catch (final SQLException e) {
+            log.debug("can't sample the primary key of table " + table + " using window functions", e);
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            return super.samplePrimaryKey(connection, table, key, step, limit);
+        }
+    }
+
     @Override
     protected String delimiterToken() {
         return "`";
@@ -45,7 +105,31 @@ public class MySQLPlatform extends Platform {
     @Override
     public void addDataSourceProperties(HikariDataSource dataSource) {
         super.addDataSourceProperties(dataSource);
+        // streaming reads use a server side cursor for prepared statements having a fetch size
         dataSource.addDataSourceProperty("useCursorFetch", true);
+
+        // https://dev.mysql.com/doc/connector-j/8.0/en/connector-j-reference-configuration-properties.html
+        dataSource.addDataSourceProperty("cachePrepStmts", "true");
+        dataSource.addDataSourceProperty("prepStmtCacheSize", String.valueOf(STATEMENT_CACHE_SIZE));
+        dataSource.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        dataSource.addDataSourceProperty("useServerPrepStmts", "true");
+    }
+
+    /**
+     * The bulk load streams the records to <code>LOAD DATA LOCAL INFILE</code>, the server also needs local_infile enabled.
+     * It lets the server read any client file, so it is never enabled on the pools of the other components.
+     */
+    @Override
+    public void addBulkLoadDataSourceProperties(final HikariDataSource dataSource) {
+        dataSource.addDataSourceProperty("allowLoadLocalInfile", "true");
+    }
+
+    /**
+     * Bulk load through <code>LOAD DATA LOCAL INFILE</code>
+     */
+    @Override
+    public boolean supportsBulkLoad() {
+        return true;
     }
 
     @Override
@@ -14,12 +14,21 @@ package org.talend.components.jdbc.output.platforms;
 
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.input.QueryPartition;
 import org.talend.components.jdbc.service.I18nMessage;
 
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.joining;
+
 /**
  * https://docs.oracle.com/cd/B28359_01/server.111/b28310/tables003.htm#ADMIN01503
  */
@@ -28,6 +37,17 @@ public class OraclePlatform extends Platform {
 
     public static final String ORACLE = "oracle";
 
+    private static final String DBA_EXTENTS_QUERY = "SELECT o.DATA_OBJECT_ID, e.RELATIVE_FNO, e.BLOCK_ID, e.BLOCKS"
+            + " FROM DBA_EXTENTS e JOIN DBA_OBJECTS o ON o.OWNER = e.OWNER AND o.OBJECT_NAME = e.SEGMENT_NAME"
+            + " AND (o.SUBOBJECT_NAME = e.PARTITION_NAME OR (o.SUBOBJECT_NAME IS NULL AND e.PARTITION_NAME IS NULL))"
+            + " WHERE e.OWNER = SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA') AND e.SEGMENT_NAME = ?"
+            + " AND e.SEGMENT_TYPE LIKE 'TABLE%' AND o.OBJECT_TYPE LIKE 'TABLE%' ORDER BY 1, 2, 3";
+
+    private static final String USER_EXTENTS_QUERY = "SELECT o.DATA_OBJECT_ID, e.RELATIVE_FNO, e.BLOCK_ID, e.BLOCKS"
+            + " FROM USER_EXTENTS e JOIN USER_OBJECTS o ON o.OBJECT_NAME = e.SEGMENT_NAME"
+            + " AND (o.SUBOBJECT_NAME = e.PARTITION_NAME OR (o.SUBOBJECT_NAME IS NULL AND e.PARTITION_NAME IS NULL))"
+            + " WHERE e.SEGMENT_NAME = ? AND e.SEGMENT_TYPE LIKE 'TABLE%' AND o.OBJECT_TYPE LIKE 'TABLE%' ORDER BY 1, 2, 3";
+
     /*
      * https://docs.oracle.com/cd/B14117_01/server.101/b10758/sqlqr06.htm
      */
@@ -42,6 +62,109 @@ public class OraclePlatform extends Platform {
         return ORACLE;
     }
 
+    /**
+     * the number of expressions in a IN list is limited to 1000 by oracle
+     */
+    @Override
+    public int maxQueryParameters() {
+        return 1000;
+    }
+
+    @Override
+    public String buildUpsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatableColumns) {
+        return "MERGE INTO " + identifier(table) + " T USING (SELECT "
+                + columns.stream().map(this::identifier).map(c -> "? AS " + c).collect(joining(",")) + " FROM DUAL) S ON ("
+                + keys.stream().map(this::identifier).map(c -> "T." + c + " = S." + c).collect(joining(" AND ")) + ")"
+                + (updatableColumns.isEmpty() ? ""
+                        : " WHEN MATCHED THEN UPDATE SET " + updatableColumns.stream().map(this::identifier)
+                                .map(c -> "T." + c + " = S." + c).collect(joining(",")))
+                + " WHEN NOT MATCHED THEN INSERT " + columns.stream().map(this::identifier).collect(joining(",", "(", ")"))
+                + " VALUES " + columns.stream().map(this::identifier).map(c -> "S." + c).collect(joining(",", "(", ")"));
+    }
+
+    @Override
+    public boolean supportsNativeUpsert() {
+        return true;
+    }
+
+    @Override
+    public long estimateRowCount(final Connection connection, final String table) throws SQLException {
+        // num_rows is computed by DBMS_STATS
+        return estimateRowCount(connection, table,
+                "SELECT NUM_ROWS FROM ALL_TABLES WHERE OWNER = SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA') AND TABLE_NAME = ?",
+                table);
+    }
+
+    @Override
+    public long estimateRowSize(final Connection connection, final String table) throws SQLException {
+        return estimateRowSize(connection, table,
+                "SELECT AVG_ROW_LEN FROM ALL_TABLES WHERE OWNER = SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA') AND TABLE_NAME = ?",
+                table);
+    }
+
+    /**
+     * Split the table segments in ROWID ranges of contiguous extents. The boundaries are the first ROWID of an extent so
+     * that a range never cut an extent.
+     */
+    @Override
+    public List<QueryPartition> splitByStorage(final Connection connection, final String table,
+            final List<String> primaryKeys, final int partitions) throws SQLException {
+        List<long[]> extents;
+        try {
+            extents = readExtents(connection, DBA_EXTENTS_QUERY, table);
+        } catch (final SQLException e) {
+            log.debug("can't read DBA_EXTENTS, only the tables of the current user can be split", e);
+            extents = readExtents(connection, USER_EXTENTS_QUERY, table);
+        }
+        final long blocks = extents.stream().mapToLong(extent -> extent[3]).sum();
+        if (blocks == 0) {
+            return emptyList();
+        }
+
+        final long blocksPerPartition = (blocks + partitions - 1) / partitions;
+        final List<Serializable> boundaries = new ArrayList<>(partitions);
+        try (final PreparedStatement statement = connection
+                .prepareStatement("SELECT ROWIDTOCHAR(DBMS_ROWID.ROWID_CREATE(1, ?, ?, ?, 0)) FROM DUAL")) {
+            long read = 0;
+            long next = blocksPerPartition;
+            for (final long[] extent : extents) {
+                if (read >= next) {
+                    statement.setLong(1, extent[0]);
+                    statement.setLong(2, extent[1]);
+                    statement.setLong(3, extent[2]);
+                    try (final ResultSet rowId = statement.executeQuery()) {
+                        rowId.next();
+                        boundaries.add(rowId.getString(1));
+                    }
+                    while (next <= read) {
+                        next += blocksPerPartition;
+                    }
+                }
+                read += extent[3];
+            }
+        }
+        return QueryPartition.ranges("ROWID", "CHARTOROWID(?)", boundaries, false);
+    }
+
+    /**
+     * @return the data object id, the relative file number, the first block and the number of blocks of each extent
+     * ordered as the ROWIDs
+     */
+    private List<long[]> readExtents(final Connection connection, final String query, final String table)
+            throws SQLException {
+        final List<long[]> extents = new ArrayList<>();
+        try (final PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, table);
+            try (final ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    extents.add(new long[] { result.getLong(1), result.getLong(2), result.getLong(3), result.getLong(4) });
+                }
+            }
+        }
+        return extents;
+    }
+
     @Override
     protected String delimiterToken() {
         return "\"";
@@ -72,6 +195,7 @@ public class OraclePlatform extends Platform {
     public void addDataSourceProperties(final HikariDataSource dataSource) {
         super.addDataSourceProperties(dataSource);
         dataSource.addDataSourceProperty("oracle.jdbc.J2EE13Compliant", "TRUE");
+        dataSource.addDataSourceProperty("oracle.jdbc.implicitStatementCacheSize", String.valueOf(STATEMENT_CACHE_SIZE));
     }
 
     @Override
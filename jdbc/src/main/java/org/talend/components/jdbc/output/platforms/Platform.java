@@ -18,17 +18,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.ErrorFactory;
 import org.talend.components.jdbc.configuration.DistributionStrategy;
 import org.talend.components.jdbc.configuration.RedshiftSortStrategy;
+import org.talend.components.jdbc.input.QueryPartition;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema;
 
 import java.io.Serializable;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static org.talend.components.jdbc.ErrorFactory.toIllegalStateException;
@@ -40,6 +46,18 @@ public abstract class Platform implements Serializable {
 
     public static final String APPLICATION = "Talend";
 
+    protected static final int DEFAULT_FETCH_SIZE = 1000;
+
+    /**
+     * The number of prepared statements cached by connection when the driver supports it.
+     * The output prepares the same statements for every group of records.
+     */
+    protected static final int STATEMENT_CACHE_SIZE = 250;
+
+    private static final long DEFAULT_ROW_SIZE = 100;
+
+    private static final long MAX_ESTIMATED_COLUMN_SIZE = 256;
+
     private final I18nMessage i18n;
 
     protected Platform(I18nMessage i18n) {
@@ -119,6 +137,265 @@ public abstract class Platform implements Serializable {
                 .collect(toList())).build();
     }
 
+    /**
+     * Estimate the number of rows of a table. The default implementation use the table statistics exposed by the driver
+     * metadata and fallback to a count query when no statistics are available.
+     *
+     * @param connection an open connection to the database
+     * @param table the table name
+     * @return the estimated number of rows
+     */
+    public long estimateRowCount(final Connection connection, final String table) throws SQLException {
+        final DatabaseMetaData metaData = connection.getMetaData();
+        try (final ResultSet statistics = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false,
+                true)) {
+            while (statistics.next()) {
+                if (statistics.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic && statistics.getLong("CARDINALITY") > 0) {
+                    return statistics.getLong("CARDINALITY");
+                }
+            }
+        } catch (final SQLException e) {
+            log.debug("can't read statistics of table " + table, e);
+        }
+
+        return count(connection, table);
+    }
+
+    protected long count(final Connection connection, final String table) throws SQLException {
+        try (final Statement statement = connection.createStatement();
+                final ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM " + identifier(table))) {
+            return result.next() ? result.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Run a statistics query taking the table name as single parameter and fallback to a count when no statistics are
+     * available.
+     */
+    protected long estimateRowCount(final Connection connection, final String table, final String statisticsQuery,
+            final String statisticsParameter) throws SQLException {
+        final long rows = readStatistics(connection, table, statisticsQuery, statisticsParameter);
+        return rows > 0 ? rows : count(connection, table);
+    }
+
+    /**
+     * Estimate the average size of a row in bytes, the partition size requested by the runner is a size in bytes. The
+     * default implementation sums the declared size of the columns, variable length columns are counted up to
+     * {@link #MAX_ESTIMATED_COLUMN_SIZE} bytes.
+     *
+     * @param connection an open connection to the database
+     * @param table the table name
+     * @return the estimated average row size in bytes
+     */
+    public long estimateRowSize(final Connection connection, final String table) throws SQLException {
+        long size = 0;
+        try (final ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), connection.getSchema(),
+                table, null)) {
+            while (columns.next()) {
+                final int columnSize = columns.getInt("COLUMN_SIZE");
+                size += columnSize <= 0 ? MAX_ESTIMATED_COLUMN_SIZE : Math.min(columnSize, MAX_ESTIMATED_COLUMN_SIZE);
+            }
+        } catch (final SQLException e) {
+            log.debug("can't read columns of table " + table, e);
+        }
+
+        return size > 0 ? size : DEFAULT_ROW_SIZE;
+    }
+
+    /**
+     * Run a statistics query taking the table name as single parameter and fallback to the column sizes when no
+     * statistics are available.
+     */
+    protected long estimateRowSize(final Connection connection, final String table, final String statisticsQuery,
+            final String statisticsParameter) throws SQLException {
+        final long size = readStatistics(connection, table, statisticsQuery, statisticsParameter);
+        return size > 0 ? size : estimateRowSize(connection, table);
+    }
+
+    private long readStatistics(final Connection connection, final String table, final String statisticsQuery,
+            final String statisticsParameter) throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(statisticsQuery)) {
+            statement.setString(1, statisticsParameter);
+            try (final ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getLong(1) : 0;
+            }
+        } catch (final SQLException e) {
+            log.debug("can't read statistics of table " + table, e);
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Split a table in ranges of its physical storage so that it can be read in parallel without a user defined split
+     * column. The default implementation split the leading primary key column using sampled boundaries.
+     *
+     * @param connection an open connection to the database
+     * @param table the table name
+     * @param primaryKeys the primary key columns of the table ordered by their position in the key
+     * @param partitions the expected number of partitions
+     * @return the partitions predicates, empty when the table can't be split
+     */
+    public List<QueryPartition> splitByStorage(final Connection connection, final String table,
+            final List<String> primaryKeys, final int partitions) throws SQLException {
+        return splitByPrimaryKey(connection, table, primaryKeys, partitions);
+    }
+
+    protected List<QueryPartition> splitByPrimaryKey(final Connection connection, final String table,
+            final List<String> primaryKeys, final int partitions) throws SQLException {
+        if (primaryKeys.isEmpty()) {
+            log.debug("table {} has no primary key and can't be split", table);
+            return emptyList();
+        }
+
+        final String key = primaryKeys.get(0);
+        final long step = Math.max(1, estimateRowCount(connection, table) / partitions);
+        return QueryPartition.ranges(identifier(key), "?",
+                samplePrimaryKey(connection, identifier(table), identifier(key), step, partitions - 1), false);
+    }
+
+    /**
+     * Sample the ordered values of a primary key column every <code>step</code> rows. The default implementation read the
+     * ordered key column and keep the sampled values on the client side.
+     *
+     * @return at most <code>limit</code> distinct and ordered values
+     */
+    protected List<Serializable> samplePrimaryKey(final Connection connection, final String table, final String key,
+            final long step, final int limit) throws SQLException {
+        final List<Serializable> boundaries = new ArrayList<>(limit);
+        try (final Statement statement = connection.createStatement()) {
+            statement.setFetchSize(10000);
+            try (final ResultSet keys = statement.executeQuery("SELECT " + key + " FROM " + table + " ORDER BY " + key)) {
+                long row = 0;
+                while (boundaries.size() < limit && keys.next()) {
+                    if (++row % step == 0) {
+                        addBoundary(boundaries, keys.getObject(1));
+                    }
+                }
+            }
+        }
+        return boundaries;
+    }
+
+    /**
+     * Sample the ordered values of a primary key column on the database side using a <code>ROW_NUMBER</code> window.
+     */
+    protected List<Serializable> samplePrimaryKeyWithRowNumber(final Connection connection, final String table,
+            final String key, final long step, final int limit) throws SQLException {
+        final List<Serializable> boundaries = new ArrayList<>(limit);
+        try (final PreparedStatement statement = connection.prepareStatement("SELECT k FROM (SELECT " + key
+                + " AS k, ROW_NUMBER() OVER (ORDER BY " + key + ") AS rn FROM " + table + ") s WHERE MOD(rn, ?) = 0 ORDER BY k")) {
+            statement.setLong(1, step);
+            statement.setMaxRows(limit);
+            try (final ResultSet keys = statement.executeQuery()) {
+                while (keys.next()) {
+                    addBoundary(boundaries, keys.getObject(1));
+                }
+            }
+        }
+        return boundaries;
+    }
+
+    private static void addBoundary(final List<Serializable> boundaries, final Object value) {
+        if (value instanceof Serializable && !boundaries.contains(value)) {
+            boundaries.add((Serializable) value);
+        }
+    }
+
+    /**
+     * Prepare a query reading a large result with a constant memory: forward only and read only cursor, with the fetch
+     * size and the cursor holdability allowing this database to stream the rows instead of buffering the whole result.
+     *
+     * @param connection the connection used only by this query until the result is read
+     * @param query the query to prepare
+     * @param fetchSize the configured fetch size, 0 to use the default one
+     * @return the prepared statement, ready to be bound and executed
+     */
+    public PreparedStatement prepareStreamingStatement(final Connection connection, final String query, final int fetchSize)
+            throws SQLException {
+        prepareStreamingConnection(connection);
+        final int holdability = streamingHoldability(connection);
+        final PreparedStatement statement = holdability == connection.getHoldability()
+                ? connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
+                : connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, holdability);
+        try {
+            statement.setFetchSize(streamingFetchSize(fetchSize));
+        } catch (final SQLException e) {
+            try {
+                statement.close();
+            } catch (final SQLException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+        return statement;
+    }
+
+    /**
+     * Configure the connection before a streaming read. Drivers only keep a cursor open inside a transaction, the
+     * connection is also flagged read only as a hint for the database.
+     */
+    protected void prepareStreamingConnection(final Connection connection) throws SQLException {
+        if (connection.getAutoCommit()) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            connection.setReadOnly(true);
+        } catch (final SQLException e) {
+            log.warn(i18n.warnReadOnlyOptimisationFailure(), e);
+        }
+    }
+
+    /**
+     * @return the holdability of the streaming cursors, the driver default one by default
+     */
+    protected int streamingHoldability(final Connection connection) throws SQLException {
+        return connection.getHoldability();
+    }
+
+    /**
+     * @return the fetch size of the streaming cursors. A fetch size of 0 let most of the drivers read the whole result
+     * at once, it is replaced by a default fetch size.
+     */
+    protected int streamingFetchSize(final int fetchSize) {
+        return fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE;
+    }
+
+    /**
+     * @return the max number of bind parameters used in a single statement. This limit is used to size the set based
+     * queries.
+     */
+    public int maxQueryParameters() {
+        return 1000;
+    }
+
+    /**
+     * Build a single statement upsert query, the parameters are bound in the <code>columns</code> order.
+     *
+     * @param table the table name
+     * @param columns all the columns of the record
+     * @param keys the columns identifying a row
+     * @param updatableColumns the columns to update when the row already exists
+     * @return the upsert query or null if this platform don't have a native upsert
+     */
+    public String buildUpsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatableColumns) {
+        return null;
+    }
+
+    public boolean supportsNativeUpsert() {
+        return false;
+    }
+
+    /**
+     * @return true when the BULK_LOAD action has a native implementation for this platform
+     */
+    public boolean supportsBulkLoad() {
+        return false;
+    }
+
     /**
      * Add platform related properties to jdbc connections
      * 
@@ -127,4 +404,13 @@ public abstract class Platform implements Serializable {
     public void addDataSourceProperties(final HikariDataSource dataSource) {
         // to be override by impl
     }
+
+    /**
+     * Add the properties needed by the bulk load to the jdbc connections of a bulk load output only
+     *
+     * @param dataSource the data source object to be configured
+     */
+    public void addBulkLoadDataSourceProperties(final HikariDataSource dataSource) {
+        // to be override by impl
+    }
 }
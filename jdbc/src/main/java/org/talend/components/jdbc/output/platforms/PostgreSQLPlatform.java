@@ -12,13 +12,22 @@
  */
 package org.talend.components.jdbc.output.platforms;
 
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.input.QueryPartition;
 import org.talend.components.jdbc.service.I18nMessage;
 
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static java.util.stream.Collectors.joining;
+
 /**
  * syntax detail can be found at <a href=
  * "http://www.postgresqltutorial.com/postgresql-create-table/">http://www.postgresqltutorial.com/postgresql-create-table/</a>
@@ -37,6 +46,99 @@ public class PostgreSQLPlatform extends Platform {
         return POSTGRESQL;
     }
 
+    @Override
+    public int maxQueryParameters() {
+        return 10000;
+    }
+
+    /**
+     * The keys need to be a primary key or a unique constraint of the table
+     */
+    @Override
+    public String buildUpsertQuery(final String table, final List<String> columns, final List<String> keys,
+            final List<String> updatableColumns) {
+        return "INSERT INTO " + identifier(table) + columns.stream().map(this::identifier).collect(joining(",", "(", ")"))
+                + " VALUES" + columns.stream().map(c -> "?").collect(joining(",", "(", ")")) + " ON CONFLICT "
+                + keys.stream().map(this::identifier).collect(joining(",", "(", ")"))
+                + (updatableColumns.isEmpty() ? " DO NOTHING"
+                        : " DO UPDATE SET " + updatableColumns.stream().map(this::identifier).map(c -> c + " = EXCLUDED." + c)
+                                .collect(joining(",")));
+    }
+
+    @Override
+    public boolean supportsNativeUpsert() {
+        return true;
+    }
+
+    /**
+     * Bulk load through <code>COPY ... FROM STDIN</code>
+     */
+    @Override
+    public boolean supportsBulkLoad() {
+        return true;
+    }
+
+    @Override
+    public long estimateRowCount(final Connection connection, final String table) throws SQLException {
+        // pg_class statistics are maintained by vacuum and analyze
+        return estimateRowCount(connection, table, "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)",
+                identifier(table));
+    }
+
+    @Override
+    public long estimateRowSize(final Connection connection, final String table) throws SQLException {
+        return estimateRowSize(connection, table,
+                "SELECT (pg_relation_size(oid) / NULLIF(reltuples, 0))::bigint FROM pg_class WHERE oid = to_regclass(?)",
+                identifier(table));
+    }
+
+    /**
+     * Split the table heap in ranges of pages using the <code>ctid</code> system column. PostgreSQL 14 and above read
+     * such a range with a TID range scan, older versions filter a sequential scan. Tables without storage, partitioned
+     * tables for example, fallback to the primary key split.
+     */
+    @Override
+    public List<QueryPartition> splitByStorage(final Connection connection, final String table,
+            final List<String> primaryKeys, final int partitions) throws SQLException {
+        final long pages;
+        try (final PreparedStatement statement = connection
+                .prepareStatement("SELECT pg_relation_size(to_regclass(?)) / current_setting('block_size')::bigint")) {
+            statement.setString(1, identifier(table));
+            try (final ResultSet result = statement.executeQuery()) {
+                pages = result.next() ? result.getLong(1) : 0;
+            }
+        }
+        if (pages <= 1) {
+            return splitByPrimaryKey(connection, table, primaryKeys, partitions);
+        }
+
+        final long pagesPerPartition = (pages + partitions - 1) / partitions;
+        final List<Serializable> boundaries = new ArrayList<>(partitions);
+        for (long page = pagesPerPartition; page < pages; page += pagesPerPartition) {
+            boundaries.add("(" + page + ",0)");
+        }
+        return QueryPartition.ranges("ctid", "CAST(? AS tid)", boundaries, false);
+    }
+
+    /**
+     * The driver only reads the rows by fetch size chunks from a forward only cursor that is not held over commits,
+     * otherwise the whole result is read at once.
+     */
+    @Override
+    protected int streamingHoldability(final Connection connection) {
+        return ResultSet.CLOSE_CURSORS_AT_COMMIT;
+    }
+
+    @Override
+    public void addDataSourceProperties(final HikariDataSource dataSource) {
+        super.addDataSourceProperties(dataSource);
+
+        // https://jdbc.postgresql.org/documentation/head/connect.html
+        // use a server side prepared statement from the first execution as the same statements are executed for every group
+        dataSource.addDataSourceProperty("prepareThreshold", "1");
+        dataSource.addDataSourceProperty("preparedStatementCacheQueries", String.valueOf(STATEMENT_CACHE_SIZE));
+    }
+
     @Override
     protected String delimiterToken() {
         return "\"";
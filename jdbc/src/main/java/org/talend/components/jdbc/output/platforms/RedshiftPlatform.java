@@ -17,6 +17,7 @@ import org.talend.components.jdbc.configuration.DistributionStrategy;
 import org.talend.components.jdbc.configuration.RedshiftSortStrategy;
 import org.talend.components.jdbc.service.I18nMessage;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -41,6 +42,11 @@ public class RedshiftPlatform extends Platform {
         return REDSHIFT;
     }
 
+    @Override
+    public long estimateRowCount(final Connection connection, final String table) throws SQLException {
+        return estimateRowCount(connection, table, "SELECT tbl_rows FROM svv_table_info WHERE \"table\" = ?", table);
+    }
+
     @Override
     protected String delimiterToken() {
         // https://docs.aws.amazon.com/redshift/latest/dg/r_names.html
@@ -14,6 +14,7 @@ package org.talend.components.jdbc.output.platforms;
 
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.configuration.DistributionStrategy;
+import org.talend.components.jdbc.input.QueryPartition;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.sdk.component.api.record.Record;
 
@@ -32,6 +33,23 @@ public class SQLDWHPlatform extends MSSQLPlatform {
         super(i18n);
     }
 
+    /**
+     * MERGE is not available on SQL data warehouse
+     */
+    @Override
+    public boolean supportsNativeUpsert() {
+        return false;
+    }
+
+    /**
+     * <code>%%physloc%%</code> is not available on SQL data warehouse
+     */
+    @Override
+    public List<QueryPartition> splitByStorage(final Connection connection, final String table,
+            final List<String> primaryKeys, final int partitions) throws SQLException {
+        return splitByPrimaryKey(connection, table, primaryKeys, partitions);
+    }
+
     public void createTableIfNotExist(final Connection connection, final String name, final List<String> keys,
             final List<String> sortKeys, final DistributionStrategy distributionStrategy, final List<String> distributionKeys,
             final int varcharLength, final List<Record> records) throws SQLException {
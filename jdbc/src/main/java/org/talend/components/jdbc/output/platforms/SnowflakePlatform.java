@@ -14,11 +14,15 @@ package org.talend.components.jdbc.output.platforms;
 
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.input.QueryPartition;
 import org.talend.components.jdbc.service.I18nMessage;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.joining;
 
 /**
@@ -38,6 +42,30 @@ public class SnowflakePlatform extends Platform {
         return SNOWFLAKE;
     }
 
+    @Override
+    public long estimateRowCount(final Connection connection, final String table) throws SQLException {
+        return estimateRowCount(connection, table,
+                "SELECT ROW_COUNT FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = CURRENT_SCHEMA() AND TABLE_NAME = ?",
+                table);
+    }
+
+    @Override
+    public long estimateRowSize(final Connection connection, final String table) throws SQLException {
+        return estimateRowSize(connection, table,
+                "SELECT BYTES / NULLIF(ROW_COUNT, 0) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = CURRENT_SCHEMA()"
+                        + " AND TABLE_NAME = ?",
+                table);
+    }
+
+    /**
+     * Snowflake micro-partitions can't be addressed and primary keys are not enforced, the table is not split
+     */
+    @Override
+    public List<QueryPartition> splitByStorage(final Connection connection, final String table,
+            final List<String> primaryKeys, final int partitions) {
+        return emptyList();
+    }
+
     @Override
     protected String delimiterToken() {
         return "\"";
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement;
+
+import lombok.Data;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Retry dead locks with an exponential backoff capped to a max wait. Half of the wait is randomized so that concurrent
+ * writers failing together don't retry together.
+ */
+@Data
+public class BackoffRetryPolicy implements RetryPolicy {
+
+    /**
+     * 40001 is the state code used by almost all database to rise a dead lock issue
+     */
+    private static final String DEADLOCK_STATE = "40001";
+
+    private final int maxRetries;
+
+    private final long initialBackoff;
+
+    private final long maxBackoff;
+
+    @Override
+    public boolean shouldRetry(final SQLException error, final int attempt) {
+        return attempt <= maxRetries && DEADLOCK_STATE.equals(ofNullable(error.getNextException()).orElse(error).getSQLState());
+    }
+
+    @Override
+    public long backoff(final int attempt) {
+        final long cap = Math.min(maxBackoff, initialBackoff << Math.min(attempt - 1, 30));
+        if (cap <= 1) {
+            return Math.max(cap, 0);
+        }
+        return cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+    }
+}
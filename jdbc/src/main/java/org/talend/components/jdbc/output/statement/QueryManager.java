@@ -24,4 +24,25 @@ import java.util.List;
 public interface QueryManager extends Serializable {
 
     List<Reject> execute(List<Record> records, JdbcService.JdbcDatasource dataSource) throws SQLException, IOException;
+
+    /**
+     * @return the number of connections this query manager may use at the same time
+     */
+    default int getMaxConnections() {
+        return 1;
+    }
+
+    /**
+     * @return true when the written records must be committed before the table is written again in the same transaction
+     */
+    default boolean isCommitRequiredPerWrite() {
+        return false;
+    }
+
+    /**
+     * Release the resources held by this query manager
+     */
+    default void close() {
+        // no-op
+    }
 }
@@ -20,13 +20,28 @@ import org.talend.components.jdbc.output.statement.operations.Insert;
 import org.talend.components.jdbc.output.statement.operations.QueryManagerImpl;
 import org.talend.components.jdbc.output.statement.operations.Update;
 import org.talend.components.jdbc.output.statement.operations.UpsertDefault;
+import org.talend.components.jdbc.output.statement.operations.UpsertNative;
+import org.talend.components.jdbc.output.statement.operations.mssql.MSSQLBulkCopy;
+import org.talend.components.jdbc.output.statement.operations.mysql.MySQLLoadData;
+import org.talend.components.jdbc.output.statement.operations.oracle.OracleInsert;
+import org.talend.components.jdbc.output.statement.operations.postgresql.PostgreSQLCopy;
 import org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeDelete;
 import org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeInsert;
 import org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeUpdate;
 import org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeUpsert;
 import org.talend.components.jdbc.service.I18nMessage;
 
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.Collections.emptyList;
 import static java.util.Locale.ROOT;
+import static java.util.stream.Collectors.toList;
+import static org.talend.components.jdbc.output.platforms.MSSQLPlatform.MSSQL;
+import static org.talend.components.jdbc.output.platforms.MariaDbPlatform.MARIADB;
+import static org.talend.components.jdbc.output.platforms.MySQLPlatform.MYSQL;
+import static org.talend.components.jdbc.output.platforms.OraclePlatform.ORACLE;
+import static org.talend.components.jdbc.output.platforms.PostgreSQLPlatform.POSTGRESQL;
 import static org.talend.components.jdbc.output.platforms.SnowflakePlatform.SNOWFLAKE;
 
 @Data
@@ -35,6 +50,25 @@ public final class QueryManagerFactory {
     private QueryManagerFactory() {
     }
 
+    /**
+     * @return the query manager of the action, spread over several connections when the writer is sharded
+     */
+    public static QueryManager getShardedQueryManager(final Platform platform, final I18nMessage i18n,
+            final OutputConfig configuration) {
+        if (configuration.getWriterShards() <= 1) {
+            return getQueryManager(platform, i18n, configuration);
+        }
+        final List<QueryManagerImpl> shards = IntStream.range(0, configuration.getWriterShards())
+                .mapToObj(i -> getQueryManager(platform, i18n, configuration)).collect(toList());
+        switch (configuration.getActionOnData()) {
+        case INSERT:
+        case BULK_LOAD:
+            return new ShardedQueryManager(shards, emptyList());
+        default:
+            return new ShardedQueryManager(shards, configuration.getKeys());
+        }
+    }
+
     public static QueryManagerImpl getQueryManager(final Platform platform, final I18nMessage i18n,
             final OutputConfig configuration) {
         final String db = configuration.getDataset().getConnection().getDbType().toLowerCase(ROOT);
@@ -55,13 +89,30 @@ public final class QueryManagerFactory {
         default:
             switch (configuration.getActionOnData()) {
             case INSERT:
+                if (configuration.isMssqlBulkCopy() && MSSQL.equals(platform.name())) {
+                    return new MSSQLBulkCopy(platform, configuration, i18n);
+                }
+                if (configuration.isOracleAppendValues() && ORACLE.equals(platform.name())) {
+                    return new OracleInsert(platform, configuration, i18n);
+                }
                 return new Insert(platform, configuration, i18n);
             case UPDATE:
                 return new Update(platform, configuration, i18n);
             case DELETE:
                 return new Delete(platform, configuration, i18n);
             case UPSERT:
+                if (configuration.isUseNativeUpsert() && platform.supportsNativeUpsert()) {
+                    return new UpsertNative(platform, configuration, i18n);
+                }
                 return new UpsertDefault(platform, configuration, i18n);
+            case BULK_LOAD:
+                if (POSTGRESQL.equals(platform.name())) {
+                    return new PostgreSQLCopy(platform, configuration, i18n);
+                }
+                if (MYSQL.equals(platform.name()) || MARIADB.equals(platform.name())) {
+                    return new MySQLLoadData(platform, configuration, i18n);
+                }
+                throw new IllegalStateException(i18n.errorUnsupportedDatabaseAction());
             default:
                 throw new IllegalStateException(i18n.errorUnsupportedDatabaseAction());
             }
@@ -19,129 +19,181 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.Optional;
+import java.util.Collection;
+import java.util.Map;
 
 public enum RecordToSQLTypeConverter {
     RECORD {
 
         @Override
-        public void setValue(final PreparedStatement statement, final int index, final Schema.Entry entry, final Record record)
-                throws SQLException {
-            statement.setObject(index, record.get(Record.class, entry.getName()).toString());
+        public Binder binder(final Schema.Entry entry) {
+            final String name = entry.getName();
+            return (statement, index, record) -> statement.setObject(index, record.get(Record.class, name).toString());
         }
 
     },
     ARRAY {
 
         @Override
-        public void setValue(final PreparedStatement statement, final int index, final Schema.Entry entry, final Record record)
-                throws SQLException {
-            statement.setArray(index, statement.getConnection().createArrayOf(entry.getName(),
-                    record.getOptionalArray(Object.class, entry.getName()).orElseGet(ArrayList::new).toArray()));
+        public Binder binder(final Schema.Entry entry) {
+            final String name = entry.getName();
+            return (statement, index, record) -> {
+                final Collection<?> value = record.get(Collection.class, name);
+                statement.setArray(index,
+                        statement.getConnection().createArrayOf(name, (value == null ? new ArrayList<>() : value).toArray()));
+            };
         }
 
     },
     STRING {
 
         @Override
-        public void setValue(final PreparedStatement statement, final int index, final Schema.Entry entry, final Record record)
-                throws SQLException {
-            Optional<String> value = record.getOptionalString(entry.getName());
-            if (value.isPresent()) {
-                statement.setString(index, value.get());
-            } else {
-                statement.setNull(index, Types.VARCHAR);
-            }
+        public Binder binder(final Schema.Entry entry) {
+            final String name = entry.getName();
+            return (statement, index, record) -> {
+                final String value = record.get(String.class, name);
+                if (value != null) {
+                    statement.setString(index, value);
+                } else {
+                    statement.setNull(index, Types.VARCHAR);
+                }
+            };
         }
 
     },
     BYTES {
 
         @Override
-        public void setValue(final PreparedStatement statement, final int index, final Schema.Entry entry, final Record record)
-                throws SQLException {
-            statement.setBytes(index, record.getOptionalBytes(entry.getName()).orElse(null));
+        public Binder binder(final Schema.Entry entry) {
+            final String name = entry.getName();
+            return (statement, index, record) -> statement.setBytes(index, record.get(byte[].class, name));
         }
 
     },
     INT {
 
         @Override
-        public void setValue(final PreparedStatement statement, final int index, final Schema.Entry entry, final Record record)
-                throws SQLException {
-            if (record.getOptionalInt(entry.getName()).isPresent()) {
-                statement.setInt(index, record.getInt(entry.getName()));
-            } else {
-                statement.setNull(index, Types.INTEGER);
-            }
+        public Binder binder(final Schema.Entry entry) {
+            final String name = entry.getName();
+            return (statement, index, record) -> {
+                final Integer value = record.get(Integer.class, name);
+                if (value != null) {
+                    statement.setInt(index, value);
+                } else {
+                    statement.setNull(index, Types.INTEGER);
+                }
+            };
         }
 
     },
     LONG {
 
         @Override
-        public void setValue(final PreparedStatement statement, final int index, final Schema.Entry entry, final Record record)
-                throws SQLException {
-            if (record.getOptionalLong(entry.getName()).isPresent()) {
-                statement.setLong(index, record.getLong(entry.getName()));
-            } else {
-                statement.setNull(index, Types.BIGINT);
-            }
+        public Binder binder(final Schema.Entry entry) {
+            final String name = entry.getName();
+            return (statement, index, record) -> {
+                final Long value = record.get(Long.class, name);
+                if (value != null) {
+                    statement.setLong(index, value);
+                } else {
+                    statement.setNull(index, Types.BIGINT);
+                }
+            };
         }
 
     },
     FLOAT {
 
         @Override
-        public void setValue(final PreparedStatement statement, final int index, final Schema.Entry entry, final Record record)
-                throws SQLException {
-            if (record.getOptionalFloat(entry.getName()).isPresent()) {
-                statement.setFloat(index, record.getFloat(entry.getName()));
-            } else {
-                statement.setNull(index, Types.FLOAT);
-            }
+        public Binder binder(final Schema.Entry entry) {
+            final String name = entry.getName();
+            return (statement, index, record) -> {
+                final Float value = record.get(Float.class, name);
+                if (value != null) {
+                    statement.setFloat(index, value);
+                } else {
+                    statement.setNull(index, Types.FLOAT);
+                }
+            };
         }
 
     },
     DOUBLE {
 
         @Override
-        public void setValue(final PreparedStatement statement, final int index, final Schema.Entry entry, final Record record)
-                throws SQLException {
-            if (record.getOptionalDouble(entry.getName()).isPresent()) {
-                statement.setDouble(index, record.getDouble(entry.getName()));
-            } else {
-                statement.setNull(index, Types.DOUBLE);
-            }
+        public Binder binder(final Schema.Entry entry) {
+            final String name = entry.getName();
+            return (statement, index, record) -> {
+                final Double value = record.get(Double.class, name);
+                if (value != null) {
+                    statement.setDouble(index, value);
+                } else {
+                    statement.setNull(index, Types.DOUBLE);
+                }
+            };
         }
 
     },
     BOOLEAN {
 
         @Override
-        public void setValue(final PreparedStatement statement, final int index, final Schema.Entry entry, final Record record)
-                throws SQLException {
-            if (record.getOptionalBoolean(entry.getName()).isPresent()) {
-                statement.setBoolean(index, record.getBoolean(entry.getName()));
-            } else {
-                statement.setNull(index, Types.BOOLEAN);
-            }
+        public Binder binder(final Schema.Entry entry) {
+            final String name = entry.getName();
+            return (statement, index, record) -> {
+                final Boolean value = record.get(Boolean.class, name);
+                if (value != null) {
+                    statement.setBoolean(index, value);
+                } else {
+                    statement.setNull(index, Types.BOOLEAN);
+                }
+            };
         }
 
     },
     DATETIME {
 
         @Override
-        public void setValue(final PreparedStatement statement, final int index, final Schema.Entry entry, final Record record)
-                throws SQLException {
-            statement.setTimestamp(index, record.getOptionalDateTime(entry.getName())
-                    .map(d -> new Timestamp(d.toInstant().toEpochMilli())).orElse(null));
+        public Binder binder(final Schema.Entry entry) {
+            final String name = entry.getName();
+            return (statement, index, record) -> {
+                final ZonedDateTime value = record.get(ZonedDateTime.class, name);
+                if (value != null) {
+                    statement.setTimestamp(index, new Timestamp(value.toInstant().toEpochMilli()));
+                } else {
+                    statement.setNull(index, Types.TIMESTAMP);
+                }
+            };
         }
 
     };
 
-    public abstract void setValue(final PreparedStatement statement, final int index, final Schema.Entry entry,
-            final Record record) throws SQLException;
-
+    /**
+     * Create the binder of an entry, it reads the entry value of a record once and sets it with the typed statement setter.
+     */
+    public abstract Binder binder(final Schema.Entry entry);
+
+    public void setValue(final PreparedStatement statement, final int index, final Schema.Entry entry, final Record record)
+            throws SQLException {
+        binder(entry).bind(statement, index, record);
+    }
+
+    /**
+     * Compile the binding of query parameters once so that records are bound without any converter or entry lookup.
+     *
+     * @param queryParams the query parameters indexed from 1
+     * @return the binders, the binder of the parameter <code>i</code> is at the index <code>i - 1</code>
+     */
+    public static Binder[] compile(final Map<Integer, Schema.Entry> queryParams) {
+        final Binder[] binders = new Binder[queryParams.keySet().stream().mapToInt(Integer::intValue).max().orElse(0)];
+        queryParams.forEach((index, entry) -> binders[index - 1] = valueOf(entry.getType().name()).binder(entry));
+        return binders;
+    }
+
+    @FunctionalInterface
+    public interface Binder {
+
+        void bind(PreparedStatement statement, int index, Record record) throws SQLException;
+    }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement;
+
+import java.io.Serializable;
+import java.sql.SQLException;
+
+/**
+ * Decide if a failed batch execution is retried and how long to wait before retrying it.
+ */
+public interface RetryPolicy extends Serializable {
+
+    /**
+     * @param error the error of the failed execution
+     * @param attempt the number of the next attempt, starting at 1 for the first retry
+     * @return true if the execution should be retried
+     */
+    boolean shouldRetry(SQLException error, int attempt);
+
+    /**
+     * @param attempt the number of the next attempt, starting at 1 for the first retry
+     * @return the number of milliseconds to wait before the attempt
+     */
+    long backoff(int attempt);
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement;
+
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.record.Record;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Spread each group over several query managers executed in parallel, each one using its own connections and committing
+ * its own shard. The records are routed by the hash of their keys, the records of a row stay in the same shard and are
+ * executed in order. Without keys, the group is split in contiguous slices.
+ */
+@Slf4j
+public class ShardedQueryManager implements QueryManager {
+
+    private final List<? extends QueryManager> shards;
+
+    private final List<String> keys;
+
+    private transient ExecutorService executor;
+
+    /**
+     * @param keys the keys routing the records, empty to split the groups in slices
+     */
+    public ShardedQueryManager(final List<? extends QueryManager> shards, final List<String> keys) {
+        this.shards = shards;
+        this.keys = keys;
+    }
+
+    @Override
+    public List<Reject> execute(final List<Record> records, final JdbcService.JdbcDatasource dataSource)
+            throws SQLException, IOException {
+        if (records.isEmpty()) {
+            return emptyList();
+        }
+        final List<List<Record>> partitions = partition(records);
+        final List<Future<List<Reject>>> executions = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            final QueryManager shard = shards.get(i);
+            final List<Record> partition = partitions.get(i);
+            if (!partition.isEmpty()) {
+                executions.add(getExecutor().submit(() -> shard.execute(partition, dataSource)));
+            }
+        }
+
+        // wait for every shard before reporting a failure, the other shards are committed
+        final List<Reject> rejects = new ArrayList<>();
+        Exception error = null;
+        for (final Future<List<Reject>> execution : executions) {
+            try {
+                rejects.addAll(execution.get());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException(e);
+            } catch (final ExecutionException e) {
+                final Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause()
+                        : new IllegalStateException(e.getCause());
+                if (error == null) {
+                    error = cause;
+                } else {
+                    error.addSuppressed(cause);
+                }
+            }
+        }
+        if (error instanceof SQLException) {
+            throw (SQLException) error;
+        }
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        }
+        if (error != null) {
+            throw (RuntimeException) error;
+        }
+        return rejects;
+    }
+
+    private List<List<Record>> partition(final List<Record> records) {
+        final int count = shards.size();
+        final List<List<Record>> partitions = new ArrayList<>(count);
+        if (keys.isEmpty()) {
+            final int slice = (records.size() + count - 1) / count;
+            for (int i = 0; i < count; i++) {
+                partitions.add(records.subList(Math.min(records.size(), i * slice),
+                        Math.min(records.size(), (i + 1) * slice)));
+            }
+            return partitions;
+        }
+        for (int i = 0; i < count; i++) {
+            partitions.add(new ArrayList<>(records.size() / count + 1));
+        }
+        final Object[] values = new Object[keys.size()];
+        for (final Record record : records) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = record.get(Object.class, keys.get(i));
+            }
+            partitions.get(Math.floorMod(Arrays.deepHashCode(values), count)).add(record);
+        }
+        return partitions;
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            final AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(shards.size(), runnable -> {
+                final Thread thread = new Thread(runnable, "jdbc-shard-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return shards.stream().mapToInt(QueryManager::getMaxConnections).sum();
+    }
+
+    @Override
+    public boolean isCommitRequiredPerWrite() {
+        return shards.stream().anyMatch(QueryManager::isCommitRequiredPerWrite);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        shards.forEach(QueryManager::close);
+    }
+}
@@ -31,7 +31,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.joining;
-import static java.util.stream.Collectors.toList;
 
 @Slf4j
 public class Delete extends QueryManagerImpl {
@@ -42,8 +41,6 @@ public class Delete extends QueryManagerImpl {
 
     private final String query;
 
-    private boolean namedParamsResolved;
-
     public Delete(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
         super(platform, configuration, i18n);
         this.keys = new ArrayList<>(ofNullable(configuration.getKeys()).orElse(emptyList()));
@@ -56,24 +53,20 @@ public class Delete extends QueryManagerImpl {
 
     @Override
     public String buildQuery(final List<Record> records) {
-        if (!namedParamsResolved) {
-            queryParams = new HashMap<>();
+        queryParams = cachedQuery(records, entries -> {
+            final Map<Integer, Schema.Entry> params = new HashMap<>();
             final AtomicInteger index = new AtomicInteger(0);
-            final List<Schema.Entry> entries = records.stream().flatMap(r -> r.getSchema().getEntries().stream()).distinct()
-                    .collect(toList());
             keys.stream().map(key -> entries.stream().filter(e -> key.equals(e.getName())).findFirst())
                     .filter(Optional::isPresent).map(Optional::get)
-                    .forEach(entry -> queryParams.put(index.incrementAndGet(), entry));
+                    .forEach(entry -> params.put(index.incrementAndGet(), entry));
             /* can't handle this group without all the named params */
-            if (queryParams.size() != keys.size()) {
+            if (params.size() != keys.size()) {
                 final String missingParams = keys.stream()
-                        .filter(key -> queryParams.values().stream().noneMatch(e -> e.getName().equals(key)))
-                        .collect(joining(","));
+                        .filter(key -> params.values().stream().noneMatch(e -> e.getName().equals(key))).collect(joining(","));
                 throw new IllegalStateException(new IllegalStateException(getI18n().errorNoFieldForQueryParam(missingParams)));
             }
-
-            namedParamsResolved = true;
-        }
+            return new CachedQuery(query, params);
+        }).getQueryParams();
         return query;
     }
 
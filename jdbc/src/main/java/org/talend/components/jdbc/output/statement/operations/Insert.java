@@ -25,38 +25,32 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import static java.util.Comparator.comparing;
-import static java.util.stream.Collectors.*;
+import static java.util.stream.Collectors.joining;
 
 @Slf4j
 public class Insert extends QueryManagerImpl {
 
     private Map<Integer, Schema.Entry> namedParams;
 
-    private final Map<String, String> queries = new HashMap<>();
-
     public Insert(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
         super(platform, configuration, i18n);
     }
 
     @Override
     public String buildQuery(final List<Record> records) {
-        final List<Schema.Entry> entries = records.stream().flatMap(r -> r.getSchema().getEntries().stream()).distinct()
-                .collect(toList());
-        return queries.computeIfAbsent(entries.stream().map(Schema.Entry::getName).collect(joining("::")), key -> {
+        final CachedQuery cached = cachedQuery(records, entries -> {
             final AtomicInteger index = new AtomicInteger(0);
-            namedParams = new HashMap<>();
-            entries.forEach(name -> namedParams.put(index.incrementAndGet(), name));
-            final List<Map.Entry<Integer, Schema.Entry>> params = namedParams.entrySet().stream()
-                    .sorted(comparing(Map.Entry::getKey)).collect(toList());
+            final Map<Integer, Schema.Entry> params = new HashMap<>();
+            entries.forEach(entry -> params.put(index.incrementAndGet(), entry));
             final StringBuilder query = new StringBuilder("INSERT INTO ")
                     .append(getPlatform().identifier(getConfiguration().getDataset().getTableName()));
-            query.append(params.stream().map(e -> e.getValue().getName()).map(name -> getPlatform().identifier(name))
-                    .collect(joining(",", "(", ")")));
+            query.append(entries.stream().map(e -> getPlatform().identifier(e.getName())).collect(joining(",", "(", ")")));
             query.append(" VALUES");
-            query.append(params.stream().map(e -> "?").collect((joining(",", "(", ")"))));
-            return query.toString();
+            query.append(entries.stream().map(e -> "?").collect((joining(",", "(", ")"))));
+            return new CachedQuery(query.toString(), params);
         });
+        namedParams = cached.getQueryParams();
+        return cached.getQuery();
     }
 
     @Override
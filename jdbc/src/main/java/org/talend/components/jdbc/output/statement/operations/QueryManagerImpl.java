@@ -12,18 +12,23 @@
  */
 package org.talend.components.jdbc.output.statement.operations;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.output.Reject;
 import org.talend.components.jdbc.output.platforms.Platform;
 import org.talend.components.jdbc.output.statement.QueryManager;
+import org.talend.components.jdbc.output.statement.BackoffRetryPolicy;
 import org.talend.components.jdbc.output.statement.RecordToSQLTypeConverter;
+import org.talend.components.jdbc.output.statement.RetryPolicy;
 import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema;
 
+import java.io.Serializable;
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -31,11 +36,15 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.Optional.ofNullable;
@@ -51,9 +60,19 @@ public abstract class QueryManagerImpl implements QueryManager {
 
     private final I18nMessage i18n;
 
-    private final Integer maxRetry = 10;
+    private RetryPolicy retryPolicy;
 
-    private Integer retryCount = 0;
+    private final Metrics metrics = new Metrics();
+
+    private static final int MAX_CACHED_QUERIES = 16;
+
+    private transient Map<List<Schema.Entry>, CachedQuery> queries;
+
+    @Getter(AccessLevel.NONE)
+    private transient Map<Integer, Schema.Entry> compiledParams;
+
+    @Getter(AccessLevel.NONE)
+    private transient RecordToSQLTypeConverter.Binder[] binders;
 
     abstract protected String buildQuery(List<Record> records);
 
@@ -67,16 +86,35 @@ public abstract class QueryManagerImpl implements QueryManager {
             return emptyList();
         }
         try (final Connection connection = dataSource.getConnection()) {
-            return processRecords(records, connection, buildQuery(records));
+            // the halves of a bisection can't be committed on their own in a transaction view
+            return processRecords(records, connection, buildQuery(records),
+                    getConfiguration().isBisectRejects() && !dataSource.isTransaction());
         }
     }
 
-    private List<Reject> processRecords(final List<Record> records, final Connection connection, final String query)
-            throws SQLException {
+    public RetryPolicy getRetryPolicy() {
+        if (retryPolicy == null) {
+            retryPolicy = new BackoffRetryPolicy(configuration.getMaxRetries(), configuration.getRetryBackoff(),
+                    configuration.getMaxRetryBackoff());
+        }
+        return retryPolicy;
+    }
+
+    @Override
+    public void close() {
+        if (metrics.getRetries().get() > 0 || metrics.getRejectedRecords().get() > 0) {
+            log.info("{} {}", getClass().getSimpleName(), metrics);
+        }
+    }
+
+    private List<Reject> processRecords(final List<Record> records, final Connection connection, final String query,
+            final boolean bisectRejects) throws SQLException {
         List<Reject> rejects;
+        int attempt = 0;
         do {
             rejects = new ArrayList<>();
             try (final PreparedStatement statement = connection.prepareStatement(query)) {
+                final RecordToSQLTypeConverter.Binder[] binders = getBinders();
                 final Map<Integer, Integer> batchOrder = new HashMap<>();
                 int recordIndex = -1;
                 int batchNumber = -1;
@@ -87,9 +125,8 @@ public abstract class QueryManagerImpl implements QueryManager {
                         rejects.add(new Reject("missing required query param in this record", record));
                         continue;
                     }
-                    for (final Map.Entry<Integer, Schema.Entry> entry : getQueryParams().entrySet()) {
-                        RecordToSQLTypeConverter.valueOf(entry.getValue().getType().name()).setValue(statement, entry.getKey(),
-                                entry.getValue(), record);
+                    for (int i = 0; i < binders.length; i++) {
+                        binders[i].bind(statement, i + 1, record);
                     }
                     statement.addBatch();
                     batchNumber++;
@@ -104,30 +141,144 @@ public abstract class QueryManagerImpl implements QueryManager {
                     if (!connection.getAutoCommit()) {
                         connection.rollback();
                     }
-                    if (!retry(e) || retryCount > maxRetry) {
-                        rejects.addAll(handleRejects(records, batchOrder, e));
+                    attempt++;
+                    if (!getRetryPolicy().shouldRetry(e, attempt)) {
+                        if (bisectRejects && batchOrder.size() > 1 && !connection.getAutoCommit()) {
+                            rejects.addAll(bisect(batchOrder.values().stream().sorted().map(records::get).collect(toList()),
+                                    connection, query));
+                        } else {
+                            rejects.addAll(handleRejects(records, batchOrder, e));
+                        }
                         break;
                     }
-                    retryCount++;
-                    log.warn("Deadlock detected. retrying for the " + retryCount + " time", e);
+                    final long backoff = getRetryPolicy().backoff(attempt);
+                    log.warn("Deadlock detected. retrying for the " + attempt + " time in " + backoff + "ms", e);
+                    metrics.getRetries().incrementAndGet();
+                    metrics.getBackoffMillis().addAndGet(backoff);
                     try {
-                        Thread.sleep((long) Math.exp(retryCount) * 2000);
-                    } catch (InterruptedException e1) {
+                        Thread.sleep(backoff);
+                    } catch (final InterruptedException ie) {
                         Thread.currentThread().interrupt();
+                        throw e;
                     }
                 }
             }
         } while (true);
 
+        metrics.getRejectedRecords().addAndGet(rejects.size());
         return rejects;
     }
 
     /**
-     * A default retry strategy. We try to detect deadl lock by testing the sql state code.
-     * 40001 is the state code used by almost all database to rise a dead lock issue
+     * Split a failed batch in halves executed in their own transaction, until the failing records are isolated.
+     * Only the records failing on their own are rejected, the others are committed.
      */
-    private boolean retry(final SQLException e) {
-        return "40001".equals(ofNullable(e.getNextException()).orElse(e).getSQLState());
+    private List<Reject> bisect(final List<Record> records, final Connection connection, final String query)
+            throws SQLException {
+        final int middle = records.size() / 2;
+        final List<Reject> rejects = new ArrayList<>(executeOrBisect(records.subList(0, middle), connection, query));
+        rejects.addAll(executeOrBisect(records.subList(middle, records.size()), connection, query));
+        return rejects;
+    }
+
+    private List<Reject> executeOrBisect(final List<Record> records, final Connection connection, final String query)
+            throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(query)) {
+            final RecordToSQLTypeConverter.Binder[] binders = getBinders();
+            for (final Record record : records) {
+                statement.clearParameters();
+                for (int i = 0; i < binders.length; i++) {
+                    binders[i].bind(statement, i + 1, record);
+                }
+                statement.addBatch();
+            }
+            try {
+                statement.executeBatch();
+                connection.commit();
+                return emptyList();
+            } catch (final SQLException e) {
+                connection.rollback();
+                if (records.size() > 1) {
+                    return bisect(records, connection, query);
+                }
+                final SQLException error = ofNullable(e.getNextException()).orElse(e);
+                return singletonList(new Reject(error.getMessage(), error.getSQLState(), error.getErrorCode(), records.get(0)));
+            }
+        }
+    }
+
+    /**
+     * @return the current query parameters ordered by their 1-based index
+     */
+    protected Schema.Entry[] getOrderedQueryParams() {
+        final Map<Integer, Schema.Entry> params = getQueryParams();
+        final Schema.Entry[] entries = new Schema.Entry[params.size()];
+        params.forEach((index, entry) -> entries[index - 1] = entry);
+        return entries;
+    }
+
+    /**
+     * @return the binders of the current query parameters, they are only compiled again when the parameters change
+     */
+    protected RecordToSQLTypeConverter.Binder[] getBinders() {
+        final Map<Integer, Schema.Entry> params = getQueryParams();
+        if (binders == null || compiledParams != params) {
+            binders = RecordToSQLTypeConverter.compile(params);
+            compiledParams = params;
+        }
+        return binders;
+    }
+
+    /**
+     * Get the query of a group of records from the cache, the query is only built when a new schema is seen.
+     *
+     * @param records the records of the group
+     * @param factory the query builder from the entries of the group
+     * @return the query and its parameters binding
+     */
+    protected CachedQuery cachedQuery(final List<Record> records, final Function<List<Schema.Entry>, CachedQuery> factory) {
+        if (queries == null) {
+            queries = new LinkedHashMap<List<Schema.Entry>, CachedQuery>(MAX_CACHED_QUERIES, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<List<Schema.Entry>, CachedQuery> eldest) {
+                    return size() > MAX_CACHED_QUERIES;
+                }
+            };
+        }
+        return queries.computeIfAbsent(entriesOf(records), factory);
+    }
+
+    /**
+     * Records of a group usually share the schema of the first one, the union of the records entries is only computed when
+     * the group mixes several schemas.
+     */
+    protected static List<Schema.Entry> entriesOf(final List<Record> records) {
+        final Schema schema = records.get(0).getSchema();
+        for (final Record record : records) {
+            if (record.getSchema() != schema && !schema.equals(record.getSchema())) {
+                return records.stream().flatMap(r -> r.getSchema().getEntries().stream()).distinct().collect(toList());
+            }
+        }
+        return schema.getEntries();
+    }
+
+    @Data
+    public static class Metrics implements Serializable {
+
+        private final AtomicLong retries = new AtomicLong();
+
+        private final AtomicLong backoffMillis = new AtomicLong();
+
+        private final AtomicLong rejectedRecords = new AtomicLong();
+    }
+
+    @Data
+    protected static class CachedQuery {
+
+        private final String query;
+
+        private final Map<Integer, Schema.Entry> queryParams;
     }
 
     private List<Reject> handleRejects(final List<Record> records, Map<Integer, Integer> batchOrder, final SQLException e)
@@ -32,7 +32,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.joining;
-import static java.util.stream.Collectors.toList;
 
 @Slf4j
 @Getter
@@ -68,20 +67,24 @@ public class Update extends QueryManagerImpl {
 
     @Override
     public String buildQuery(final List<Record> records) {
-        this.queryParams = new HashMap<>();
-        final AtomicInteger index = new AtomicInteger(0);
-        final List<Schema.Entry> entries = records.stream().flatMap(r -> r.getSchema().getEntries().stream()).distinct()
-                .collect(toList());
-        final String query = "UPDATE " + getPlatform().identifier(getConfiguration().getDataset().getTableName()) + " SET "
-                + entries.stream().filter(e -> !ignoreColumns.contains(e.getName()) && !keys.contains(e.getName()))
-                        .peek(e -> queryParams.put(index.incrementAndGet(), e)).map(c -> getPlatform().identifier(c.getName()))
-                        .map(c -> c + " = ?").collect(joining(","))
-                + " WHERE " + keys.stream().map(c -> getPlatform().identifier(c)).map(c -> c + " = ?").collect(joining(" AND "));
+        final CachedQuery cached = cachedQuery(records, entries -> {
+            final Map<Integer, Schema.Entry> params = new HashMap<>();
+            final AtomicInteger index = new AtomicInteger(0);
+            final String query = "UPDATE " + getPlatform().identifier(getConfiguration().getDataset().getTableName())
+                    + " SET "
+                    + entries.stream().filter(e -> !ignoreColumns.contains(e.getName()) && !keys.contains(e.getName()))
+                            .peek(e -> params.put(index.incrementAndGet(), e)).map(c -> getPlatform().identifier(c.getName()))
+                            .map(c -> c + " = ?").collect(joining(","))
+                    + " WHERE "
+                    + keys.stream().map(c -> getPlatform().identifier(c)).map(c -> c + " = ?").collect(joining(" AND "));
 
-        keys.stream()
-                .map(key -> entries.stream().filter(e -> key.equals(e.getName())).findFirst()
-                        .orElseThrow(() -> new IllegalStateException(getI18n().errorNoFieldForQueryParam(key))))
-                .forEach(entry -> queryParams.put(index.incrementAndGet(), entry));
-        return query;
+            keys.stream()
+                    .map(key -> entries.stream().filter(e -> key.equals(e.getName())).findFirst()
+                            .orElseThrow(() -> new IllegalStateException(getI18n().errorNoFieldForQueryParam(key))))
+                    .forEach(entry -> params.put(index.incrementAndGet(), entry));
+            return new CachedQuery(query, params);
+        });
+        this.queryParams = cached.getQueryParams();
+        return cached.getQuery();
     }
 }
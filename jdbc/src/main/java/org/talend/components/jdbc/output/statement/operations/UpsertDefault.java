@@ -12,6 +12,7 @@
  */
 package org.talend.components.jdbc.output.statement.operations;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.configuration.OutputConfig;
@@ -28,7 +29,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
@@ -38,6 +44,11 @@ import static java.util.stream.Collectors.*;
 @Getter
 public class UpsertDefault extends QueryManagerImpl {
 
+    /**
+     * The max number of records whose existence is checked by a single query.
+     */
+    private static final int MAX_PROBED_RECORDS = 500;
+
     private final Insert insert;
 
     private final Update update;
@@ -46,6 +57,9 @@ public class UpsertDefault extends QueryManagerImpl {
 
     private Map<Integer, Schema.Entry> queryParams;
 
+    @Getter(AccessLevel.NONE)
+    private transient ExecutorService updateExecutor;
+
     public UpsertDefault(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
         super(platform, configuration, i18n);
         this.keys = new ArrayList<>(ofNullable(configuration.getKeys()).orElse(emptyList()));
@@ -56,20 +70,26 @@ public class UpsertDefault extends QueryManagerImpl {
         update = new Update(platform, configuration, i18n);
     }
 
+    /**
+     * Build an existence query for all the records keys, returning the position of each record whose key exists. The match is
+     * done by the database, with the key columns collation and conversions. The key parameters are bound record by record.
+     */
     @Override
     public String buildQuery(final List<Record> records) {
-        this.queryParams = new HashMap<>();
-        final AtomicInteger index = new AtomicInteger(0);
-        final List<Schema.Entry> entries = records.stream().flatMap(r -> r.getSchema().getEntries().stream()).distinct()
-                .collect(toList());
-
-        return "SELECT COUNT(*) AS RECORD_EXIST FROM " + getPlatform().identifier(getConfiguration().getDataset().getTableName())
-                + " WHERE "
-                + getConfiguration().getKeys().stream()
-                        .peek(key -> queryParams.put(index.incrementAndGet(),
-                                entries.stream().filter(e -> e.getName().equals(key)).findFirst()
-                                        .orElseThrow(() -> new IllegalStateException(getI18n().errorNoFieldForQueryParam(key)))))
-                        .map(c -> getPlatform().identifier(c)).map(c -> c + " = ?").collect(joining(" AND "));
+        final CachedQuery cached = cachedQuery(records, entries -> {
+            final Map<Integer, Schema.Entry> params = new HashMap<>();
+            final AtomicInteger index = new AtomicInteger(0);
+            keys.stream()
+                    .map(key -> entries.stream().filter(e -> e.getName().equals(key)).findFirst()
+                            .orElseThrow(() -> new IllegalStateException(getI18n().errorNoFieldForQueryParam(key))))
+                    .forEach(entry -> params.put(index.incrementAndGet(), entry));
+            return new CachedQuery(" FROM " + getPlatform().identifier(getConfiguration().getDataset().getTableName())
+                    + " WHERE " + keys.stream().map(c -> getPlatform().identifier(c) + " = ?").collect(joining(" AND ")), params);
+        });
+        this.queryParams = cached.getQueryParams();
+
+        return IntStream.range(0, records.size()).mapToObj(i -> "SELECT " + i + cached.getQuery())
+                .collect(joining(" UNION ALL "));
     }
 
     @Override
@@ -92,27 +112,41 @@ public class UpsertDefault extends QueryManagerImpl {
         }
         final List<Record> needUpdate = new ArrayList<>();
         final List<Record> needInsert = new ArrayList<>();
-        final String query = buildQuery(records);
         final List<Reject> discards = new ArrayList<>();
+        final List<Record> validRecords = new ArrayList<>();
+        for (final Record record : records) {
+            if (validateQueryParam(record)) {
+                validRecords.add(record);
+            } else {
+                discards.add(new Reject("missing required query param in this record", record));
+            }
+        }
+        getMetrics().getRejectedRecords().addAndGet(discards.size());
+
+        final int chunkSize = Math.max(1, Math.min(MAX_PROBED_RECORDS, getPlatform().maxQueryParameters() / keys.size()));
         try (final Connection connection = dataSource.getConnection()) {
-            try (final PreparedStatement statement = connection.prepareStatement(query)) {
-                for (final Record record : records) {
-                    statement.clearParameters();
-                    if (!validateQueryParam(record)) {
-                        discards.add(new Reject("missing required query param in this record", record));
-                        continue;
-                    }
-                    for (final Map.Entry<Integer, Schema.Entry> entry : getQueryParams().entrySet()) {
-                        RecordToSQLTypeConverter.valueOf(entry.getValue().getType().name()).setValue(statement, entry.getKey(),
-                                entry.getValue(), record);
-                    }
-                    try (final ResultSet result = statement.executeQuery()) {
-                        if (result.next() && result.getInt("RECORD_EXIST") > 0) {
-                            needUpdate.add(record);
-                        } else {
-                            needInsert.add(record);
+            try {
+                for (int from = 0; from < validRecords.size(); from += chunkSize) {
+                    final List<Record> chunk = validRecords.subList(from, Math.min(validRecords.size(), from + chunkSize));
+                    final boolean[] exists = new boolean[chunk.size()];
+                    try (final PreparedStatement statement = connection.prepareStatement(buildQuery(chunk))) {
+                        final RecordToSQLTypeConverter.Binder[] binders = getBinders();
+                        int offset = 0;
+                        for (final Record record : chunk) {
+                            for (int i = 0; i < binders.length; i++) {
+                                binders[i].bind(statement, offset + i + 1, record);
+                            }
+                            offset += keys.size();
+                        }
+                        try (final ResultSet result = statement.executeQuery()) {
+                            while (result.next()) {
+                                exists[result.getInt(1)] = true;
+                            }
                         }
                     }
+                    for (int i = 0; i < exists.length; i++) {
+                        (exists[i] ? needUpdate : needInsert).add(chunk.get(i));
+                    }
                 }
                 connection.commit();
             } catch (final SQLException e) {
@@ -121,7 +155,10 @@ public class UpsertDefault extends QueryManagerImpl {
             }
         }
 
-        // fixme handle the update and insert in // need a pool of 2 !
+        if (getConfiguration().isParallelUpsert() && !needInsert.isEmpty() && !needUpdate.isEmpty()) {
+            discards.addAll(executeConcurrently(needInsert, needUpdate, dataSource));
+            return discards;
+        }
         if (!needInsert.isEmpty()) {
             insert.buildQuery(needInsert);
             discards.addAll(insert.execute(needInsert, dataSource));
@@ -133,4 +170,64 @@ public class UpsertDefault extends QueryManagerImpl {
 
         return discards;
     }
+
+    /**
+     * Run the update on a dedicated thread while the insert runs on the caller one, each side uses its own connection and
+     * is committed independently. The update is always awaited so that no statement outlives this call.
+     */
+    private List<Reject> executeConcurrently(final List<Record> needInsert, final List<Record> needUpdate,
+            final JdbcService.JdbcDatasource dataSource) throws SQLException {
+        final Future<List<Reject>> updateResult = getUpdateExecutor().submit(() -> {
+            update.buildQuery(needUpdate);
+            return update.execute(needUpdate, dataSource);
+        });
+        final List<Reject> discards = new ArrayList<>();
+        try {
+            insert.buildQuery(needInsert);
+            discards.addAll(insert.execute(needInsert, dataSource));
+        } finally {
+            try {
+                discards.addAll(updateResult.get());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException(e);
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof SQLException) {
+                    throw (SQLException) e.getCause();
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new SQLException(e.getCause());
+            }
+        }
+        return discards;
+    }
+
+    private synchronized ExecutorService getUpdateExecutor() {
+        if (updateExecutor == null) {
+            updateExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "jdbc-upsert-update");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return updateExecutor;
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return getConfiguration().isParallelUpsert() ? 2 : 1;
+    }
+
+    @Override
+    public synchronized void close() {
+        super.close();
+        insert.close();
+        update.close();
+        if (updateExecutor != null) {
+            updateExecutor.shutdownNow();
+            updateExecutor = null;
+        }
+    }
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations.mssql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.OutputConfig;
+import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.output.statement.operations.Insert;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Insert the records with <code>SQLServerBulkCopy</code>, the records are read by the driver through an
+ * <code>ISQLServerBulkRecord</code> proxy. A bulk copy is all or nothing, when it fails the group is rolled back and inserted
+ * again with batched statements to get the rejected records.
+ *
+ * The driver is loaded in its own classloader, its bulk copy API is called by reflection.
+ */
+@Slf4j
+public class MSSQLBulkCopy extends Insert {
+
+    private static final String BULK_COPY = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopy";
+
+    private static final String BULK_RECORD = "com.microsoft.sqlserver.jdbc.ISQLServerBulkRecord";
+
+    public MSSQLBulkCopy(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
+        super(platform, configuration, i18n);
+    }
+
+    @Override
+    public List<Reject> execute(final List<Record> records, final JdbcService.JdbcDatasource dataSource) throws SQLException {
+        if (records.isEmpty()) {
+            return emptyList();
+        }
+        buildQuery(records);
+        final Schema.Entry[] entries = getOrderedQueryParams();
+        try (final Connection connection = dataSource.getConnection()) {
+            try {
+                writeToServer(connection, entries, records);
+                connection.commit();
+                return emptyList();
+            } catch (final SQLException e) {
+                connection.rollback();
+                log.debug("bulk copy failed, inserting the group with batched statements to get the rejected records", e);
+            }
+        }
+        return super.execute(records, dataSource);
+    }
+
+    private void writeToServer(final Connection connection, final Schema.Entry[] entries, final List<Record> records)
+            throws SQLException {
+        // the pool hands a proxy, the bulk copy needs the driver connection to join its transaction
+        final Connection driverConnection = connection.unwrap(Connection.class);
+        final ClassLoader loader = driverConnection.getClass().getClassLoader();
+        try {
+            final Class<?> bulkCopyType = loader.loadClass(BULK_COPY);
+            final Class<?> bulkRecordType = loader.loadClass(BULK_RECORD);
+            final Object bulkRecord = Proxy.newProxyInstance(loader, new Class<?>[] { bulkRecordType },
+                    new BulkRecord(entries, records));
+            final Object bulkCopy = bulkCopyType.getConstructor(Connection.class).newInstance(driverConnection);
+            try {
+                bulkCopyType.getMethod("setDestinationTableName", String.class).invoke(bulkCopy,
+                        getPlatform().identifier(getConfiguration().getDataset().getTableName()));
+                final Method addColumnMapping = bulkCopyType.getMethod("addColumnMapping", int.class, String.class);
+                for (int i = 0; i < entries.length; i++) {
+                    addColumnMapping.invoke(bulkCopy, i + 1, entries[i].getName());
+                }
+                bulkCopyType.getMethod("writeToServer", bulkRecordType).invoke(bulkCopy, bulkRecord);
+            } finally {
+                bulkCopyType.getMethod("close").invoke(bulkCopy);
+            }
+        } catch (final InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException(e.getCause());
+        } catch (final ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InstantiationException e) {
+            throw new IllegalStateException("the driver doesn't support bulk copy: " + driverConnection.getClass().getName(),
+                    e);
+        }
+    }
+
+    /**
+     * <code>ISQLServerBulkRecord</code> over the records, the columns are the 1-based positions of the entries.
+     */
+    private static class BulkRecord implements InvocationHandler {
+
+        private static final int TIMESTAMP_PRECISION = 27;
+
+        private static final int TIMESTAMP_SCALE = 7;
+
+        private final Schema.Entry[] entries;
+
+        private final List<Record> records;
+
+        private int next;
+
+        private Record current;
+
+        private BulkRecord(final Schema.Entry[] entries, final List<Record> records) {
+            this.entries = entries;
+            this.records = records;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) {
+            switch (method.getName()) {
+            case "getColumnOrdinals":
+                final Set<Integer> ordinals = new LinkedHashSet<>();
+                for (int i = 1; i <= entries.length; i++) {
+                    ordinals.add(i);
+                }
+                return ordinals;
+            case "getColumnName":
+                return entries[(Integer) args[0] - 1].getName();
+            case "getColumnType":
+                return sqlType(entries[(Integer) args[0] - 1]);
+            case "getPrecision":
+                return precision(entries[(Integer) args[0] - 1]);
+            case "getScale":
+                return entries[(Integer) args[0] - 1].getType() == Schema.Type.DATETIME ? TIMESTAMP_SCALE : 0;
+            case "isAutoIncrement":
+                return false;
+            case "next":
+                if (next == records.size()) {
+                    return false;
+                }
+                current = records.get(next++);
+                return true;
+            case "getRowData":
+                final Object[] row = new Object[entries.length];
+                for (int i = 0; i < entries.length; i++) {
+                    row[i] = valueOf(current, entries[i]).map(value -> value instanceof ZonedDateTime
+                            ? new Timestamp(((ZonedDateTime) value).toInstant().toEpochMilli())
+                            : value).orElse(null);
+                }
+                return row;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "BulkRecord(" + records.size() + " records)";
+            default:
+                // metadata setters of the file based records
+                return null;
+            }
+        }
+
+        /**
+         * The precision of the source column as the driver describes it to the server. Strings and bytes are sent as
+         * <code>nvarchar(max)</code> and <code>varbinary(max)</code> so that any value fits, timestamps as
+         * <code>datetime2(7)</code>.
+         */
+        private static int precision(final Schema.Entry entry) {
+            switch (entry.getType()) {
+            case INT:
+                return 10;
+            case LONG:
+                return 19;
+            case FLOAT:
+                return 7;
+            case DOUBLE:
+                return 15;
+            case BOOLEAN:
+                return 1;
+            case DATETIME:
+                return TIMESTAMP_PRECISION;
+            case BYTES:
+            case STRING:
+            default:
+                return Integer.MAX_VALUE;
+            }
+        }
+
+        private static int sqlType(final Schema.Entry entry) {
+            switch (entry.getType()) {
+            case INT:
+                return Types.INTEGER;
+            case LONG:
+                return Types.BIGINT;
+            case FLOAT:
+                return Types.REAL;
+            case DOUBLE:
+                return Types.DOUBLE;
+            case BOOLEAN:
+                return Types.BIT;
+            case BYTES:
+                return Types.VARBINARY;
+            case DATETIME:
+                return Types.TIMESTAMP;
+            case STRING:
+            default:
+                return Types.NVARCHAR;
+            }
+        }
+    }
+}
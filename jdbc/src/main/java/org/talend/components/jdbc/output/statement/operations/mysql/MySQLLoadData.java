@@ -0,0 +1,317 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations.mysql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.OutputConfig;
+import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.output.statement.operations.Insert;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Bulk load the records with <code>LOAD DATA LOCAL INFILE</code>, the records are encoded in the default tab separated
+ * format while the driver sends them from the input stream set on the statement.
+ *
+ * A local load implies <code>IGNORE</code>: it skips the rows it can't load and reports them as warnings. The rows named
+ * by a warning are rejected, the group is rolled back and loaded again without them so the rejected records are never
+ * written. When the load itself fails, when a warning doesn't name its row (a duplicated key for instance) or when it has
+ * more warnings than the server reports (<code>max_error_count</code>), the group is inserted again with batched
+ * statements. Tables of a non transactional engine can't be rolled back, they are always inserted with batched
+ * statements.
+ *
+ * The driver is loaded in its own classloader, its local infile API is called by reflection.
+ */
+@Slf4j
+public class MySQLLoadData extends Insert {
+
+    private static final Pattern WARNING_ROW = Pattern.compile("(?:at row|Row) (\\d+)");
+
+    private transient Boolean transactional;
+
+    public MySQLLoadData(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
+        super(platform, configuration, i18n);
+    }
+
+    @Override
+    public List<Reject> execute(final List<Record> records, final JdbcService.JdbcDatasource dataSource) throws SQLException {
+        if (records.isEmpty()) {
+            return emptyList();
+        }
+        buildQuery(records);
+        final Schema.Entry[] entries = getOrderedQueryParams();
+        final String load = "LOAD DATA LOCAL INFILE 'talend-jdbc-bulk-load' INTO TABLE "
+                + getPlatform().identifier(getConfiguration().getDataset().getTableName()) + " CHARACTER SET utf8mb4"
+                + Arrays.stream(entries).map(e -> getPlatform().identifier(e.getName())).collect(joining(",", "(", ")"));
+        final List<Reject> rejects = new ArrayList<>();
+        try (final Connection connection = dataSource.getConnection()) {
+            if (!isTransactional(connection)) {
+                log.debug("table {} can't be rolled back, inserting with batched statements",
+                        getConfiguration().getDataset().getTableName());
+                return super.execute(records, dataSource);
+            }
+            try {
+                List<Record> pending = records;
+                while (!pending.isEmpty()) {
+                    final Set<Integer> warnedRows = load(connection, load, pending, entries, rejects);
+                    if (warnedRows == null) {
+                        throw new SQLException("load data warnings can't all be matched to their records");
+                    }
+                    if (warnedRows.isEmpty()) {
+                        connection.commit();
+                        break;
+                    }
+                    connection.rollback();
+                    final List<Record> remaining = new ArrayList<>(pending.size() - warnedRows.size());
+                    for (int i = 0; i < pending.size(); i++) {
+                        if (!warnedRows.contains(i)) {
+                            remaining.add(pending.get(i));
+                        }
+                    }
+                    pending = remaining;
+                }
+                getMetrics().getRejectedRecords().addAndGet(rejects.size());
+                return rejects;
+            } catch (final SQLException e) {
+                connection.rollback();
+                log.debug("load data failed, inserting the group with batched statements to get the rejected records", e);
+            }
+        }
+        return super.execute(records, dataSource);
+    }
+
+    /**
+     * @return the indexes of the records named by the warnings of the load, they are added to the rejects, or null when a
+     * warning doesn't name its row or the server didn't report all the warnings, some rows may then have been skipped,
+     * truncated or coerced
+     */
+    private Set<Integer> load(final Connection connection, final String load, final List<Record> records,
+            final Schema.Entry[] entries, final List<Reject> rejects) throws SQLException {
+        final Set<Integer> warnedRows = new TreeSet<>();
+        try (final Statement statement = connection.createStatement()) {
+            setLocalInfileInputStream(statement, new RecordInputStream(records, entries));
+            statement.executeUpdate(load);
+            int reported = 0;
+            for (SQLWarning warning = statement.getWarnings(); warning != null; warning = warning.getNextWarning()) {
+                reported++;
+                final Matcher row = WARNING_ROW.matcher(String.valueOf(warning.getMessage()));
+                final int index = row.find() ? Integer.parseInt(row.group(1)) - 1 : -1;
+                if (index >= 0 && index < records.size()) {
+                    if (warnedRows.add(index)) {
+                        rejects.add(new Reject(warning.getMessage(), warning.getSQLState(), warning.getErrorCode(),
+                                records.get(index)));
+                    }
+                } else {
+                    log.debug("load data warning without row: {}", warning.getMessage());
+                    return null;
+                }
+            }
+            if (reported > 0 && countWarnings(statement) > reported) {
+                return null;
+            }
+        }
+        return warnedRows;
+    }
+
+    /**
+     * @return true when the table engine supports transactions, a load can then be rolled back
+     */
+    private boolean isTransactional(final Connection connection) throws SQLException {
+        if (transactional == null) {
+            try (final PreparedStatement statement = connection.prepareStatement("SELECT e.TRANSACTIONS FROM "
+                    + "information_schema.TABLES t JOIN information_schema.ENGINES e ON e.ENGINE = t.ENGINE "
+                    + "WHERE t.TABLE_SCHEMA = DATABASE() AND t.TABLE_NAME = ?")) {
+                statement.setString(1, getConfiguration().getDataset().getTableName());
+                try (final ResultSet result = statement.executeQuery()) {
+                    transactional = result.next() && "YES".equalsIgnoreCase(result.getString(1));
+                }
+            }
+        }
+        return transactional;
+    }
+
+    private static long countWarnings(final Statement statement) throws SQLException {
+        try (final ResultSet result = statement.executeQuery("SHOW COUNT(*) WARNINGS")) {
+            return result.next() ? result.getLong(1) : 0;
+        }
+    }
+
+    private static void setLocalInfileInputStream(final Statement statement, final InputStream stream) throws SQLException {
+        // the pool hands a proxy, the driver statement accepts the stream used in place of the local file
+        final Statement driverStatement = statement.unwrap(Statement.class);
+        try {
+            driverStatement.getClass().getMethod("setLocalInfileInputStream", InputStream.class).invoke(driverStatement,
+                    stream);
+        } catch (final InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException(e.getCause());
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(
+                    "the statement doesn't support local infile streams: " + driverStatement.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Encode the records one line at a time while the driver reads them. Strings are written in UTF-8 and loaded as
+     * utf8mb4, the server converts them to the column character set. The tab, new line, backslash and NUL bytes are
+     * escaped.
+     */
+    private static class RecordInputStream extends InputStream {
+
+        private final List<Record> records;
+
+        private final Schema.Entry[] entries;
+
+        private final Line line = new Line();
+
+        private int next;
+
+        private int position;
+
+        private RecordInputStream(final List<Record> records, final Schema.Entry[] entries) {
+            this.records = records;
+            this.entries = entries;
+        }
+
+        @Override
+        public int read() {
+            if (!fill()) {
+                return -1;
+            }
+            return line.bytes()[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int read = 0;
+            while (read < length && fill()) {
+                final int count = Math.min(length - read, line.size() - position);
+                System.arraycopy(line.bytes(), position, buffer, offset + read, count);
+                position += count;
+                read += count;
+            }
+            return read == 0 ? -1 : read;
+        }
+
+        private boolean fill() {
+            if (position < line.size()) {
+                return true;
+            }
+            if (next == records.size()) {
+                return false;
+            }
+            encode(records.get(next++));
+            return true;
+        }
+
+        private void encode(final Record record) {
+            line.reset();
+            position = 0;
+            for (int i = 0; i < entries.length; i++) {
+                if (i > 0) {
+                    line.write('\t');
+                }
+                format(record, entries[i]);
+            }
+            line.write('\n');
+        }
+
+        private void format(final Record record, final Schema.Entry entry) {
+            final Object value = valueOf(record, entry).orElse(null);
+            if (value == null) {
+                line.ascii("\\N");
+                return;
+            }
+            switch (entry.getType()) {
+            case BOOLEAN:
+                line.write((Boolean) value ? '1' : '0');
+                break;
+            case BYTES:
+                line.escape((byte[]) value);
+                break;
+            case DATETIME:
+                // rendered in the jvm timezone, as the timestamps bound to the batched statements
+                line.ascii(new Timestamp(((ZonedDateTime) value).toInstant().toEpochMilli()).toString());
+                break;
+            case STRING:
+                line.escape(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                break;
+            default:
+                line.ascii(String.valueOf(value));
+            }
+        }
+    }
+
+    private static class Line extends ByteArrayOutputStream {
+
+        private byte[] bytes() {
+            return buf;
+        }
+
+        private void ascii(final String value) {
+            for (int i = 0; i < value.length(); i++) {
+                write(value.charAt(i));
+            }
+        }
+
+        private void escape(final byte[] value) {
+            for (final byte b : value) {
+                switch (b) {
+                case 0:
+                    write('\\');
+                    write('0');
+                    break;
+                case '\t':
+                case '\n':
+                case '\\':
+                    write('\\');
+                    write(b);
+                    break;
+                default:
+                    write(b);
+                }
+            }
+        }
+    }
+}
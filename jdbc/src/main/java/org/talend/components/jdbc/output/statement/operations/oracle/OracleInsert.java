@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations.oracle;
+
+import org.talend.components.jdbc.configuration.OutputConfig;
+import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.output.statement.operations.Insert;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.sdk.component.api.record.Record;
+
+import java.util.List;
+
+/**
+ * Direct-path insert, the batched rows are bound as arrays by the driver and written above the high water mark of the table
+ * with the <code>APPEND_VALUES</code> hint. The table can't be read or written again in the transaction until it is
+ * committed (ORA-12838), so each batch is committed even when the output commits per group.
+ */
+public class OracleInsert extends Insert {
+
+    private static final String INSERT = "INSERT INTO ";
+
+    public OracleInsert(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
+        super(platform, configuration, i18n);
+    }
+
+    @Override
+    public boolean isCommitRequiredPerWrite() {
+        return true;
+    }
+
+    @Override
+    public String buildQuery(final List<Record> records) {
+        final String query = super.buildQuery(records);
+        return "INSERT /*+ APPEND_VALUES */ INTO " + query.substring(INSERT.length());
+    }
+}
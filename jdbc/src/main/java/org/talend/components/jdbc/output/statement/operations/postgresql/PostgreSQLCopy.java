@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations.postgresql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.OutputConfig;
+import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.output.platforms.Platform;
+import org.talend.components.jdbc.output.statement.operations.Insert;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.joining;
+import static org.apache.commons.codec.binary.Hex.encodeHexString;
+
+/**
+ * Bulk load the records with <code>COPY ... FROM STDIN</code>, the records are encoded in the text format while the driver
+ * streams them to the server. A copy is all or nothing, when it fails the group is rolled back and inserted again with
+ * batched statements to get the rejected records.
+ *
+ * The driver is loaded in its own classloader, its copy API is called by reflection.
+ */
+@Slf4j
+public class PostgreSQLCopy extends Insert {
+
+    public PostgreSQLCopy(final Platform platform, final OutputConfig configuration, final I18nMessage i18n) {
+        super(platform, configuration, i18n);
+    }
+
+    @Override
+    public List<Reject> execute(final List<Record> records, final JdbcService.JdbcDatasource dataSource) throws SQLException {
+        if (records.isEmpty()) {
+            return emptyList();
+        }
+        buildQuery(records);
+        final Schema.Entry[] entries = getOrderedQueryParams();
+        final String copy = "COPY " + getPlatform().identifier(getConfiguration().getDataset().getTableName())
+                + Arrays.stream(entries).map(e -> getPlatform().identifier(e.getName())).collect(joining(",", "(", ")"))
+                + " FROM STDIN";
+        try (final Connection connection = dataSource.getConnection()) {
+            try {
+                final long copied = copyIn(connection, copy, new RecordReader(records, entries));
+                connection.commit();
+                log.debug("copied {} records", copied);
+                return emptyList();
+            } catch (final SQLException e) {
+                connection.rollback();
+                log.debug("copy failed, inserting the group with batched statements to get the rejected records", e);
+            }
+        }
+        return super.execute(records, dataSource);
+    }
+
+    private static long copyIn(final Connection connection, final String sql, final Reader reader) throws SQLException {
+        // the pool hands a proxy, the driver connection gives access to its copy manager
+        final Connection pgConnection = connection.unwrap(Connection.class);
+        try {
+            final Object copyManager = pgConnection.getClass().getMethod("getCopyAPI").invoke(pgConnection);
+            return (Long) copyManager.getClass().getMethod("copyIn", String.class, Reader.class).invoke(copyManager, sql,
+                    reader);
+        } catch (final InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException(e.getCause());
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("the connection doesn't support COPY: " + pgConnection.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Encode the records in the COPY text format one line at a time, while the driver reads them.
+     */
+    private static class RecordReader extends Reader {
+
+        private final List<Record> records;
+
+        private final Schema.Entry[] entries;
+
+        private final StringBuilder line = new StringBuilder();
+
+        private int next;
+
+        private int position;
+
+        private RecordReader(final List<Record> records, final Schema.Entry[] entries) {
+            this.records = records;
+            this.entries = entries;
+        }
+
+        @Override
+        public int read(final char[] buffer, final int offset, final int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int read = 0;
+            while (read < length) {
+                if (position == line.length()) {
+                    if (next == records.size()) {
+                        break;
+                    }
+                    encode(records.get(next++));
+                }
+                final int count = Math.min(length - read, line.length() - position);
+                line.getChars(position, position + count, buffer, offset + read);
+                position += count;
+                read += count;
+            }
+            return read == 0 ? -1 : read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // no-op
+        }
+
+        private void encode(final Record record) {
+            line.setLength(0);
+            position = 0;
+            for (int i = 0; i < entries.length; i++) {
+                if (i > 0) {
+                    line.append('\t');
+                }
+                format(record, entries[i]);
+            }
+            line.append('\n');
+        }
+
+        private void format(final Record record, final Schema.Entry entry) {
+            final Object value = valueOf(record, entry).orElse(null);
+            if (value == null) {
+                line.append("\\N");
+                return;
+            }
+            switch (entry.getType()) {
+            case BYTES:
+                // bytea hex format, the backslash is escaped by the text format
+                line.append("\\\\x").append(encodeHexString((byte[]) value));
+                break;
+            case DATETIME:
+                line.append(((ZonedDateTime) value).format(ISO_OFFSET_DATE_TIME));
+                break;
+            case STRING:
+                escape(String.valueOf(value));
+                break;
+            default:
+                line.append(value);
+            }
+        }
+
+        private void escape(final String value) {
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                switch (c) {
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    line.append(c);
+                }
+            }
+        }
+    }
+}
@@ -16,13 +16,19 @@ import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -34,19 +40,24 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import static java.nio.file.Files.createTempDirectory;
 import static java.nio.file.Files.createTempFile;
-import static java.nio.file.Files.newBufferedWriter;
 import static java.time.LocalDateTime.now;
 import static java.time.format.DateTimeFormatter.ofPattern;
+import static java.util.Collections.emptyList;
 import static java.util.Locale.ROOT;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
@@ -56,22 +67,86 @@ import static org.talend.components.jdbc.output.statement.operations.QueryManage
 @Slf4j
 public class SnowflakeCopy {
 
-    private static final long maxChunk = 16 * 1024 * 1024; // 16MB
-
     private static final String TIMESTAMP_FORMAT_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
 
-    public static List<Reject> putAndCopy(final Connection connection, final List<Record> records, final String fqStageName,
-            final String fqTableName, final String fqTmpTableName) throws SQLException {
+    /**
+     * Upload the records to the stage and copy them into the tmp table. The chunks are uploaded concurrently, each uploader
+     * using its own connection, and copied as soon as they are uploaded while the next ones are still uploading.
+     *
+     * @param stage the user stage path the chunks are uploaded to
+     */
+    public static List<Reject> putAndCopy(final JdbcService.JdbcDatasource dataSource, final Connection connection,
+            final List<Record> records, final String stage, final String fqTmpTableName, final OutputConfig configuration)
+            throws SQLException {
+        final AtomicInteger threadCounter = new AtomicInteger();
+        final ExecutorService uploaders = Executors.newFixedThreadPool(uploadThreads(configuration), runnable -> {
+            final Thread thread = new Thread(runnable, "jdbc-snowflake-put-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final CompletionService<Upload> uploads = new ExecutorCompletionService<>(uploaders);
+            final List<RecordChunk> chunks = splitRecords(createWorkDir(), records,
+                    configuration.getSnowflakeChunkSize() * 1024L * 1024L,
+                    chunk -> uploads.submit(() -> doPUT(dataSource, stage, chunk)));
+            final List<Reject> rejects = new ArrayList<>();
+            final List<RecordChunk> uploaded = new ArrayList<>();
+            int pending = chunks.size();
+            while (pending > 0) {
+                Future<Upload> upload = uploads.take();
+                do {
+                    pending--;
+                    final Upload result = upload.get();
+                    rejects.addAll(result.getRejects());
+                    if (result.getRejects().isEmpty()) {
+                        uploaded.add(result.getChunk());
+                    }
+                } while ((upload = uploads.poll()) != null);
+                if (!uploaded.isEmpty()) {
+                    rejects.addAll(toReject(uploaded, doCopy(stage, fqTmpTableName, connection, uploaded)));
+                    uploaded.clear();
+                }
+            }
+            return rejects;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            uploaders.shutdownNow();
+            removeStage(connection, stage);
+        }
+    }
 
-        final List<RecordChunk> chunks = splitRecords(createWorkDir(), records);
+    /**
+     * @return the number of connections used by a query manager loading data through the stage
+     */
+    public static int maxConnections(final OutputConfig configuration) {
+        return 1 + uploadThreads(configuration);
+    }
+
+    private static int uploadThreads(final OutputConfig configuration) {
+        return Math.max(1, configuration.getSnowflakeUploadThreads());
+    }
+
+    /**
+     * The loaded files are purged by the copy, remove the files left by failed uploads or loads.
+     */
+    private static void removeStage(final Connection connection, final String stage) {
         try (final Statement statement = connection.createStatement()) {
-            statement.execute("create temporary table if not exists " + fqTmpTableName + " like " + fqTableName);
+            statement.execute("REMOVE '@" + stage + "/'");
+        } catch (final SQLException e) {
+            log.warn("can't clean snowflake stage " + stage, e);
         }
-        final List<Reject> rejects = new ArrayList<>();
-        final List<RecordChunk> copy = chunks.stream().parallel().map(chunk -> doPUT(fqStageName, connection, chunk, rejects))
-                .filter(Objects::nonNull).collect(toList());
-        rejects.addAll(toReject(chunks, doCopy(fqStageName, fqTmpTableName, connection, copy)));
-        return rejects;
+    }
+
+    /**
+     * @param tableName the table name
+     * @return a unique user stage path for a load into the table
+     */
+    public static String stageName(final String tableName) {
+        return "~/talend-jdbc/" + tableName + "_" + UUID.randomUUID().toString();
     }
 
     /**
@@ -105,7 +180,7 @@ public class SnowflakeCopy {
 
     private static List<Reject> toReject(final List<RecordChunk> chunks, final List<CopyError> errors) {
         return errors.stream().flatMap(error -> chunks.stream()
-                .filter(chunk -> error.getFile().startsWith(chunk.getChunk().getFileName().toString()))
+                .filter(chunk -> stagedFileName(error.getFile()).equals(chunk.getChunk().getFileName().toString()))
                 .map(chunk -> new Reject(
                         error.getError() + (error.getErrorColumnName() == null || error.getErrorColumnName().isEmpty() ? ""
                                 : ", columnName=" + error.getErrorColumnName()),
@@ -113,36 +188,52 @@ public class SnowflakeCopy {
                 .collect(toList());
     }
 
-    private static RecordChunk doPUT(final String fqStageName, final Connection connection, final RecordChunk chunk,
-            final List<Reject> rejects) {
-        try (final Statement statement = connection.createStatement()) {
-            try (final ResultSet result = statement
-                    .executeQuery("PUT '" + chunk.getChunk().toUri() + "' '@" + fqStageName + "/' AUTO_COMPRESS=TRUE")) {
+    /**
+     * @param stagedFile a file as reported by a copy, relative to the stage or with its stage and directory
+     * @return the name of the uploaded file
+     */
+    public static String stagedFileName(final String stagedFile) {
+        return stagedFile.substring(stagedFile.lastIndexOf('/') + 1);
+    }
+
+    private static Upload doPUT(final JdbcService.JdbcDatasource dataSource, final String stage, final RecordChunk chunk) {
+        try (final Connection connection = dataSource.getConnection();
+                final Statement statement = connection.createStatement()) {
+            try (final ResultSet result = statement.executeQuery("PUT '" + chunk.getChunk().toUri() + "' '@" + stage
+                    + "/' SOURCE_COMPRESSION=GZIP AUTO_COMPRESS=FALSE")) {
                 result.next();
                 if (!"uploaded".equalsIgnoreCase(result.getString("status"))) {
                     String error = result.getString("message");
-                    rejects.addAll(toReject(chunk, error, result.getString("status"), null));
-                    return null;
+                    return new Upload(chunk, toReject(chunk, error, result.getString("status"), null));
                 }
             }
-            return chunk;
+            return new Upload(chunk, emptyList());
         } catch (final SQLException e) {
-            rejects.addAll(toReject(chunk, e.getMessage(), e.getSQLState(), e.getErrorCode()));
-            return null;
+            return new Upload(chunk, toReject(chunk, e.getMessage(), e.getSQLState(), e.getErrorCode()));
+        } finally {
+            chunk.delete();
         }
     }
 
+    @Data
+    private static class Upload {
+
+        private final RecordChunk chunk;
+
+        private final List<Reject> rejects;
+    }
+
     private static List<Reject> toReject(RecordChunk chunk, String error, final String state, final Integer code) {
         return chunk.getRecords().stream().map(record -> new Reject(error, state, code, record)).collect(Collectors.toList());
     }
 
-    private static List<CopyError> doCopy(final String fqStageName, final String fqTableName, final Connection connection,
+    private static List<CopyError> doCopy(final String stage, final String fqTableName, final Connection connection,
             final List<RecordChunk> chunks) {
         final List<CopyError> errors = new ArrayList<>();
         try (final Statement statement = connection.createStatement()) {
             try (final ResultSet result = statement
-                    .executeQuery("COPY INTO " + fqTableName + " from '@" + fqStageName + "'" + " FILES="
-                            + chunks.stream().map(chunk -> chunk.getChunk().getFileName()).map(name -> "'" + name + ".gz'")
+                    .executeQuery("COPY INTO " + fqTableName + " from '@" + stage + "'" + " FILES="
+                            + chunks.stream().map(chunk -> chunk.getChunk().getFileName()).map(name -> "'" + name + "'")
                                     .collect(joining(",", "(", ")"))
                             + " FILE_FORMAT=(TYPE=CSV field_delimiter=',' COMPRESSION=GZIP field_optionally_enclosed_by='\"')"
                             + " PURGE=TRUE ON_ERROR='CONTINUE'")) {
@@ -196,25 +287,31 @@ public class SnowflakeCopy {
         private final int rowParsed;
     }
 
-    private static List<RecordChunk> splitRecords(final Path directoryPath, final List<Record> records) {
-        final AtomicLong size = new AtomicLong(0);
-        final AtomicInteger count = new AtomicInteger(0);
-        final AtomicInteger recordCounter = new AtomicInteger(0);
-        final Map<Integer, RecordChunk> chunks = new HashMap<>();
-        records.stream()
-                .map(record -> record.getSchema().getEntries().stream().map(entry -> format(record, entry)).collect(joining(",")))
-                .forEach(line -> {
-                    if (size.addAndGet(line.getBytes(StandardCharsets.UTF_8).length) > maxChunk) {
-                        // this writer can be closed now. to early free of memory
-                        chunks.get(count.getAndIncrement()).close();
-                        size.set(line.getBytes(StandardCharsets.UTF_8).length);
-                    }
-                    final int recordNumber = recordCounter.getAndIncrement();
-                    chunks.computeIfAbsent(count.get(), key -> new RecordChunk(records, key, recordNumber, directoryPath))
-                            .writer(line);
-                });
-        chunks.get(count.get()).close(); // close the last writer
-        return new ArrayList<>(chunks.values());
+    /**
+     * Encode the records as CSV straight into gzip files, a new file is started when the compressed size of the current one
+     * reaches the max chunk size. Each file is handed to the consumer once it is complete.
+     */
+    private static List<RecordChunk> splitRecords(final Path directoryPath, final List<Record> records,
+            final long maxChunkSize, final Consumer<RecordChunk> onChunk) {
+        final List<RecordChunk> chunks = new ArrayList<>();
+        RecordChunk chunk = null;
+        for (int i = 0; i < records.size(); i++) {
+            if (chunk == null || chunk.size() >= maxChunkSize) {
+                if (chunk != null) {
+                    // this writer can be closed now. to early free of memory
+                    chunk.close();
+                    onChunk.accept(chunk);
+                }
+                chunk = new RecordChunk(records, chunks.size(), i, directoryPath);
+                chunks.add(chunk);
+            }
+            chunk.write(records.get(i));
+        }
+        if (chunk != null) {
+            chunk.close(); // close the last writer
+            onChunk.accept(chunk);
+        }
+        return chunks;
     }
 
     @Getter
@@ -231,7 +328,9 @@ public class SnowflakeCopy {
 
         private Path chunk;
 
-        private BufferedWriter writer;
+        private CountingOutputStream compressed;
+
+        private Writer writer;
 
         private int end;
 
@@ -242,20 +341,31 @@ public class SnowflakeCopy {
             return records.subList(start, end);
         }
 
-        void writer(final String line) {
-            if (writer == null) {
-                end = start;
-                final String suffix = now(ZoneOffset.UTC).format(ofPattern("yyyyMMddHHmmss"));
-                try {
-                    chunk = createTempFile(tmpDir, "part_" + part + "_", "_" + suffix + ".csv");
-                    writer = newBufferedWriter(chunk, StandardCharsets.UTF_8);
-                } catch (IOException e) {
-                    throw new IllegalStateException(e);
-                }
-            }
+        /**
+         * @return the number of compressed bytes written so far
+         */
+        long size() {
+            return compressed == null ? 0 : compressed.getCount();
+        }
+
+        void write(final Record record) {
             try {
-                writer.write(line);
-                writer.newLine();
+                if (writer == null) {
+                    end = start;
+                    final String suffix = now(ZoneOffset.UTC).format(ofPattern("yyyyMMddHHmmss"));
+                    chunk = createTempFile(tmpDir, "part_" + part + "_", "_" + suffix + ".csv.gz");
+                    compressed = new CountingOutputStream(Files.newOutputStream(chunk));
+                    writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(compressed), StandardCharsets.UTF_8));
+                }
+                boolean first = true;
+                for (final Schema.Entry entry : record.getSchema().getEntries()) {
+                    if (!first) {
+                        writer.write(',');
+                    }
+                    writer.write(format(record, entry));
+                    first = false;
+                }
+                writer.write('\n');
                 end++;
             } catch (final IOException e) {
                 throw new IllegalStateException(e);
@@ -271,6 +381,36 @@ public class SnowflakeCopy {
                 }
             }
         }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(chunk);
+            } catch (final IOException e) {
+                log.warn("can't delete snowflake chunk " + chunk, e);
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        @Getter
+        private long count;
+
+        private CountingOutputStream(final OutputStream delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
     }
 
     private static String format(final Record record, final Schema.Entry entry) {
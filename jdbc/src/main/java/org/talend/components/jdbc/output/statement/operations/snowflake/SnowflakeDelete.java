@@ -20,42 +20,51 @@ import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
 
-import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
 import java.util.List;
 
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.joining;
-import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.putAndCopy;
-import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.tmpTableName;
+import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.maxConnections;
 
 public class SnowflakeDelete extends Delete {
 
+    private transient SnowflakeStaging staging;
+
     public SnowflakeDelete(Platform platform, OutputConfig configuration, I18nMessage i18n) {
         super(platform, configuration, i18n);
     }
 
+    @Override
+    public int getMaxConnections() {
+        return maxConnections(getConfiguration());
+    }
+
     @Override
     public List<Reject> execute(final List<Record> records, final JdbcService.JdbcDatasource dataSource) throws SQLException {
         buildQuery(records);
-        final List<Reject> rejects = new ArrayList<>();
-        try (final Connection connection = dataSource.getConnection()) {
-            final String tableName = getConfiguration().getDataset().getTableName();
-            final String tmpTableName = tmpTableName(tableName);
-            final String fqTableName = namespace(connection) + "." + getPlatform().identifier(tableName);
-            final String fqTmpTableName = namespace(connection) + "." + getPlatform().identifier(tmpTableName);
-            final String fqStageName = namespace(connection) + ".%" + getPlatform().identifier(tmpTableName);
-            rejects.addAll(putAndCopy(connection, records, fqStageName, fqTableName, fqTmpTableName));
-            if (records.size() != rejects.size()) {
-                try (final Statement statement = connection.createStatement()) {
-                    statement.execute("delete from " + fqTableName + " target using " + fqTmpTableName + " as source where "
-                            + getConfiguration().getKeys().stream().map(key -> getPlatform().identifier(key))
-                                    .map(key -> "source." + key + "= target." + key).collect(joining("AND", " ", " ")));
-                }
+        return getStaging().load(dataSource, records, (fqTableName, fqTmpTableName) -> {
+            return "delete from " + fqTableName + " target using " + fqTmpTableName + " as source where "
+                    + getConfiguration().getKeys().stream().map(key -> getPlatform().identifier(key))
+                            .map(key -> "source." + key + "= target." + key).collect(joining("AND", " ", " "));
+        });
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (staging != null) {
+                staging.close();
             }
-            connection.commit();
+        } finally {
+            super.close();
+        }
+    }
+
+    private SnowflakeStaging getStaging() {
+        if (staging == null) {
+            staging = new SnowflakeStaging(this, emptyList());
         }
-        return rejects;
+        return staging;
     }
 }
@@ -20,44 +20,52 @@ import org.talend.components.jdbc.service.I18nMessage;
 import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
 
-import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
 import java.util.List;
 
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.joining;
-import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.putAndCopy;
-import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.tmpTableName;
+import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.maxConnections;
 
 public class SnowflakeInsert extends Insert {
 
+    private transient SnowflakeStaging staging;
+
     public SnowflakeInsert(Platform platform, OutputConfig configuration, I18nMessage i18n) {
         super(platform, configuration, i18n);
     }
 
+    @Override
+    public int getMaxConnections() {
+        return maxConnections(getConfiguration());
+    }
+
     @Override
     public List<Reject> execute(List<Record> records, final JdbcService.JdbcDatasource dataSource) throws SQLException {
         buildQuery(records);
-        final List<Reject> rejects = new ArrayList<>();
-        try (final Connection connection = dataSource.getConnection()) {
-            final String tableName = getConfiguration().getDataset().getTableName();
-            final String tmpTableName = tmpTableName(tableName);
-            final String fqTableName = namespace(connection) + "." + getPlatform().identifier(tableName);
-            final String fqTmpTableName = namespace(connection) + "." + getPlatform().identifier(tmpTableName);
-            final String fqStageName = namespace(connection) + ".%" + getPlatform().identifier(tmpTableName);
-            rejects.addAll(putAndCopy(connection, records, fqStageName, fqTableName, fqTmpTableName));
-            if (rejects.isEmpty()) {
-                try (final Statement statement = connection.createStatement()) {
-                    final String fields = getQueryParams().values().stream().map(e -> getPlatform().identifier(e.getName()))
-                            .collect(joining(","));
-                    statement.execute(
-                            "insert into " + fqTableName + "(" + fields + ") select " + fields + " from " + fqTmpTableName);
-                }
+        return getStaging().load(dataSource, records, (fqTableName, fqTmpTableName) -> {
+            final String fields = getQueryParams().values().stream().map(e -> getPlatform().identifier(e.getName()))
+                    .collect(joining(","));
+            return "insert into " + fqTableName + "(" + fields + ") select " + fields + " from " + fqTmpTableName;
+        });
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (staging != null) {
+                staging.close();
             }
-            connection.commit();
+        } finally {
+            super.close();
+        }
+    }
+
+    private SnowflakeStaging getStaging() {
+        if (staging == null) {
+            staging = new SnowflakeStaging(this, emptyList());
         }
-        return rejects;
+        return staging;
     }
 
 }
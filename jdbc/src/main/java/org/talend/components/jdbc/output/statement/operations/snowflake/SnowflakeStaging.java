@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.output.statement.operations.snowflake;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.talend.components.jdbc.configuration.OutputConfig;
+import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.output.statement.operations.QueryManagerImpl;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.record.Record;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.newSetFromMap;
+import static java.util.stream.Collectors.toList;
+import static org.talend.components.jdbc.output.statement.operations.QueryManagerImpl.valueOf;
+import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.putAndCopy;
+import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.stageName;
+import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.tmpTableName;
+
+/**
+ * The staging table and stage of a Snowflake query manager. They are created once, on a connection held for the lifetime of
+ * the query manager as the temporary table is bound to its session. The loaded groups are accumulated in the staging table
+ * and applied to the table by a single statement when a flush threshold is reached, the staging table is then truncated.
+ * <p>
+ * The thresholds are checked when a group is loaded: the last groups of a stream that goes quiet stay staged until the next
+ * group or until the output is closed. A record whose key is already staged is loaded after the staged records are applied,
+ * the apply statement never sees duplicated keys and the latest record wins.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SnowflakeStaging {
+
+    private final QueryManagerImpl queryManager;
+
+    /**
+     * The key columns matching the staged records with the table ones, empty when the records are not matched.
+     */
+    private final List<String> keys;
+
+    private final Set<List<Object>> pendingKeys = new HashSet<>();
+
+    /**
+     * The records copied into the staging table since the last apply, they are rejected if they can't be applied.
+     */
+    private final List<Record> staged = new ArrayList<>();
+
+    /**
+     * The records of the current load call, the caller rejects them when the load fails so a failed apply doesn't log them.
+     */
+    private Set<Record> loading = emptySet();
+
+    private Connection connection;
+
+    private String fqTableName;
+
+    private String fqTmpTableName;
+
+    private String stage;
+
+    private String pendingStatement;
+
+    private long pendingRecords;
+
+    private long pendingSince;
+
+    /**
+     * Copy the records into the staging table and apply the staged records if a flush threshold is reached. When the staged
+     * records can't be applied the ones loaded by the previous calls are logged as rejects, the caller rejects the current
+     * ones. The records are staged as soon as they are copied, a flush reports exactly the records it tried to apply.
+     *
+     * @param applyStatement builds the statement applying the staging table, from the table and staging table names
+     * @return the records rejected by the load
+     */
+    public List<Reject> load(final JdbcService.JdbcDatasource dataSource, final List<Record> records,
+            final BiFunction<String, String, String> applyStatement) throws SQLException {
+        if (records.isEmpty()) {
+            return emptyList();
+        }
+        open(dataSource);
+        final String statement = applyStatement.apply(fqTableName, fqTmpTableName);
+        if (pendingStatement != null && !pendingStatement.equals(statement)) {
+            // the staged records were loaded with another schema
+            flush();
+        }
+        loading = identitySet(records);
+        try {
+            final List<Reject> rejects = new ArrayList<>();
+            int start = 0;
+            if (!keys.isEmpty()) {
+                for (int i = 0; i < records.size(); i++) {
+                    final List<Object> key = keyOf(records.get(i));
+                    if (!pendingKeys.add(key)) {
+                        stage(dataSource, records.subList(start, i), statement, rejects);
+                        flush();
+                        pendingKeys.add(key);
+                        start = i;
+                    }
+                }
+            }
+            stage(dataSource, records.subList(start, records.size()), statement, rejects);
+            if (shouldFlush()) {
+                flush();
+            }
+            return rejects;
+        } finally {
+            loading = emptySet();
+        }
+    }
+
+    /**
+     * Apply the staged records, flush the pending ones and release the connection.
+     */
+    public void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            flush();
+        } catch (final SQLException e) {
+            throw new IllegalStateException("can't apply the records staged in " + fqTmpTableName
+                    + ", they are logged as rejects", e);
+        } finally {
+            try (final Statement statement = connection.createStatement()) {
+                statement.execute("drop table if exists " + fqTmpTableName);
+            } catch (final SQLException e) {
+                log.warn("can't drop snowflake staging table " + fqTmpTableName, e);
+            }
+            try {
+                connection.close();
+            } catch (final SQLException e) {
+                log.warn("can't release snowflake staging connection", e);
+            }
+            connection = null;
+        }
+    }
+
+    private void stage(final JdbcService.JdbcDatasource dataSource, final List<Record> records, final String statement,
+            final List<Reject> rejects) throws SQLException {
+        if (records.isEmpty()) {
+            return;
+        }
+        final List<Reject> copyRejects = putAndCopy(dataSource, connection, records, stage, fqTmpTableName,
+                queryManager.getConfiguration());
+        connection.commit();
+        rejects.addAll(copyRejects);
+        if (records.size() != copyRejects.size()) {
+            if (pendingRecords == 0) {
+                pendingSince = System.currentTimeMillis();
+            }
+            pendingRecords += records.size() - copyRejects.size();
+            pendingStatement = statement;
+            final Set<Record> rejected = identitySet(copyRejects.stream().map(Reject::getRecord).collect(toList()));
+            records.stream().filter(record -> !rejected.contains(record)).forEach(staged::add);
+        }
+    }
+
+    private static Set<Record> identitySet(final List<Record> records) {
+        final Set<Record> set = newSetFromMap(new IdentityHashMap<>());
+        set.addAll(records);
+        return set;
+    }
+
+    private List<Object> keyOf(final Record record) {
+        final List<Object> key = new ArrayList<>(keys.size());
+        for (final String name : keys) {
+            key.add(record.getSchema().getEntries().stream().filter(entry -> entry.getName().equals(name)).findFirst()
+                    .flatMap(entry -> valueOf(record, entry))
+                    .map(value -> value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : value).orElse(null));
+        }
+        return key;
+    }
+
+    private void open(final JdbcService.JdbcDatasource dataSource) throws SQLException {
+        if (connection != null) {
+            return;
+        }
+        final String tableName = queryManager.getConfiguration().getDataset().getTableName();
+        final String tmpTableName = tmpTableName(tableName);
+        final Connection newConnection = dataSource.getConnection();
+        try {
+            final String namespace = queryManager.namespace(newConnection);
+            fqTableName = namespace + "." + queryManager.getPlatform().identifier(tableName);
+            fqTmpTableName = namespace + "." + queryManager.getPlatform().identifier(tmpTableName);
+            try (final Statement statement = newConnection.createStatement()) {
+                statement.execute("create temporary table if not exists " + fqTmpTableName + " like " + fqTableName);
+            }
+        } catch (final SQLException e) {
+            newConnection.close();
+            throw e;
+        }
+        stage = stageName(tmpTableName);
+        connection = newConnection;
+    }
+
+    private boolean shouldFlush() {
+        final OutputConfig configuration = queryManager.getConfiguration();
+        final long maxRecords = configuration.getSnowflakeFlushRecords();
+        final long maxInterval = configuration.getSnowflakeFlushInterval();
+        if (maxRecords <= 0 && maxInterval <= 0) {
+            return true;
+        }
+        return (maxRecords > 0 && pendingRecords >= maxRecords)
+                || (maxInterval > 0 && System.currentTimeMillis() - pendingSince >= maxInterval * 1000);
+    }
+
+    private void flush() throws SQLException {
+        if (pendingRecords == 0) {
+            pendingKeys.clear();
+            return;
+        }
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute(pendingStatement);
+            statement.execute("truncate table " + fqTmpTableName);
+            connection.commit();
+        } catch (final SQLException e) {
+            connection.rollback();
+            staged.stream().filter(record -> !loading.contains(record))
+                    .map(record -> new Reject(e.getMessage(), e.getSQLState(), e.getErrorCode(), record))
+                    .map(Reject::toString).forEach(log::error);
+            discard();
+            throw e;
+        }
+        log.debug("applied {} records staged in {}", pendingRecords, fqTmpTableName);
+        pendingRecords = 0;
+        pendingStatement = null;
+        pendingKeys.clear();
+        staged.clear();
+    }
+
+    /**
+     * Forget the staged records once they are rejected, so that they are neither applied nor rejected twice.
+     */
+    private void discard() {
+        pendingRecords = 0;
+        pendingStatement = null;
+        pendingKeys.clear();
+        staged.clear();
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("truncate table " + fqTmpTableName);
+            connection.commit();
+        } catch (final SQLException e) {
+            log.warn("can't truncate snowflake staging table " + fqTmpTableName, e);
+        }
+    }
+}
@@ -71,12 +71,26 @@ public interface I18nMessage {
 
     String errorTaberDoesNotExists(String tableName);
 
+    String errorGroupRolledBack();
+
     String errorRedshiftUnsupportedBytes(String field);
 
     String errorUnsupportedDatabase(String dbType);
 
     String errorUnsupportedType(String type, String field);
 
+    String errorUnsupportedSplitColumnType(String type, String column);
+
+    String errorInvalidFilterValue(String value, String column, String type);
+
+    String errorEmptyCheckpointFile();
+
+    String errorCheckpointCantBeRead(String file, String cause);
+
+    String errorCheckpointCantBeWritten(String file, String cause);
+
+    String errorCheckpointColumnMismatch(String file, String checkpointColumn, String column);
+
     //
     String actionOnDataInsert();
 
@@ -14,10 +14,13 @@ package org.talend.components.jdbc.service;
 
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.talend.components.jdbc.ErrorFactory;
 import org.talend.components.jdbc.configuration.JdbcConfiguration;
 import org.talend.components.jdbc.datastore.JdbcConnection;
+import org.talend.components.jdbc.output.platforms.Platform;
 import org.talend.components.jdbc.output.platforms.PlatformFactory;
 import org.talend.sdk.component.api.service.Service;
 import org.talend.sdk.component.api.service.configuration.Configuration;
@@ -37,13 +40,19 @@ import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
+import static java.util.Collections.unmodifiableList;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.joining;
 import static org.talend.components.jdbc.ErrorFactory.toIllegalStateException;
@@ -58,6 +67,14 @@ public class JdbcService {
 
     private final Map<JdbcConfiguration.Driver, URL[]> drivers = new HashMap<>();
 
+    private static final int DEFAULT_METADATA_CACHE_SIZE = 1000;
+
+    private static final long DEFAULT_METADATA_CACHE_TTL = 60;
+
+    private final Map<DataSourceKey, SharedDataSource> dataSources = new ConcurrentHashMap<>();
+
+    private volatile MetadataCache metadataCache;
+
     @Service
     private Resolver resolver;
 
@@ -92,11 +109,19 @@ public class JdbcService {
                 .orElseThrow(() -> new IllegalStateException(i18n.errorDriverNotFound(dataStore.getDbType())));
     }
 
-    public static boolean checkTableExistence(final String tableName, final JdbcService.JdbcDatasource dataSource)
-            throws SQLException {
-        try (final Connection connection = dataSource.getConnection()) {
-            try (final ResultSet resultSet = connection.getMetaData().getTables(connection.getCatalog(), connection.getSchema(),
-                    tableName, new String[] { "TABLE", "SYNONYM" })) {
+    /**
+     * Check that a table exists in the connection default catalog and schema. Only the existing tables are cached, a
+     * missing table is checked again until it is created.
+     */
+    public boolean checkTableExistence(final JdbcConnection connection, final String tableName,
+            final JdbcService.JdbcDatasource dataSource) throws SQLException {
+        final MetadataCache.Key key = MetadataCache.key(connection, MetadataCache.Kind.TABLE_EXISTS, tableName);
+        if (getMetadataCache().getIfPresent(key) != null) {
+            return true;
+        }
+        try (final Connection conn = dataSource.getConnection()) {
+            try (final ResultSet resultSet = conn.getMetaData().getTables(conn.getCatalog(), conn.getSchema(), tableName,
+                    new String[] { "TABLE", "SYNONYM" })) {
                 while (resultSet.next()) {
                     if (ofNullable(ofNullable(resultSet.getString("TABLE_NAME")).orElseGet(() -> {
                         try {
@@ -105,6 +130,7 @@ public class JdbcService {
                             return null;
                         }
                     })).filter(tableName::equals).isPresent()) {
+                        getMetadataCache().put(key, Boolean.TRUE);
                         return true;
                     }
                 }
@@ -113,28 +139,216 @@ public class JdbcService {
         }
     }
 
+    /**
+     * @return the primary key columns of a table ordered by their position in the key, empty if it has no primary key
+     */
+    public List<String> getPrimaryKeys(final JdbcConnection connection, final Connection conn, final String tableName)
+            throws SQLException {
+        return metadata(connection, MetadataCache.Kind.PRIMARY_KEYS, tableName, () -> {
+            final Map<Short, String> keys = new TreeMap<>();
+            try (final ResultSet primaryKeys = conn.getMetaData().getPrimaryKeys(conn.getCatalog(), conn.getSchema(),
+                    tableName)) {
+                while (primaryKeys.next()) {
+                    keys.put(primaryKeys.getShort("KEY_SEQ"), primaryKeys.getString("COLUMN_NAME"));
+                }
+            }
+            return unmodifiableList(new ArrayList<>(keys.values()));
+        });
+    }
+
+    /**
+     * Drop the cached metadata of a table, to call once the table is created or altered.
+     */
+    public void invalidateMetadata(final JdbcConnection connection, final String tableName) {
+        getMetadataCache().invalidate(connection, tableName);
+    }
+
+    <T> T metadata(final JdbcConnection connection, final MetadataCache.Kind kind, final String tableName,
+            final MetadataCache.Loader<T> loader) throws SQLException {
+        return getMetadataCache().get(MetadataCache.key(connection, kind, tableName), loader);
+    }
+
+    /**
+     * The cache is configured with <code>jdbc.metadata.cache.ttl</code> in seconds, 0 disables it, and
+     * <code>jdbc.metadata.cache.size</code> the max number of entries.
+     */
+    private MetadataCache getMetadataCache() {
+        MetadataCache cache = metadataCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = metadataCache;
+                if (cache == null) {
+                    cache = new MetadataCache(
+                            ofNullable(localConfiguration.get("jdbc.metadata.cache.size")).map(Integer::valueOf)
+                                    .orElse(DEFAULT_METADATA_CACHE_SIZE),
+                            ofNullable(localConfiguration.get("jdbc.metadata.cache.ttl")).map(Long::valueOf)
+                                    .orElse(DEFAULT_METADATA_CACHE_TTL));
+                    metadataCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
     public JdbcDatasource createDataSource(final JdbcConnection connection) {
-        return new JdbcDatasource(i18n, resolver, connection, getDriver(connection), false, false);
+        return createDataSource(connection, false, false, 1);
     }
 
     public JdbcDatasource createDataSource(final JdbcConnection connection, final boolean rewriteBatchedStatements) {
-        return new JdbcDatasource(i18n, resolver, connection, getDriver(connection), false, rewriteBatchedStatements);
+        return createDataSource(connection, false, rewriteBatchedStatements, 1);
     }
 
     public JdbcDatasource createDataSource(final JdbcConnection connection, boolean isAutoCommit,
             final boolean rewriteBatchedStatements) {
+        return createDataSource(connection, isAutoCommit, rewriteBatchedStatements, 1);
+    }
+
+    /**
+     * Get a data source from the pool shared by all the callers using the same connection configuration.
+     * The shared pool is closed when the last data source using it is closed.
+     *
+     * @param poolSize the max number of connections that can be used concurrently from this data source
+     */
+    public JdbcDatasource createDataSource(final JdbcConnection connection, boolean isAutoCommit,
+            final boolean rewriteBatchedStatements, final int poolSize) {
+        return createDataSource(connection, isAutoCommit, rewriteBatchedStatements, poolSize, false);
+    }
+
+    /**
+     * Get a data source from a shared pool, see {@link #createDataSource(JdbcConnection, boolean, boolean, int)}.
+     *
+     * @param bulkLoad true to enable the driver features needed by the bulk load, a bulk load pool is never shared with
+     * the other components
+     */
+    public JdbcDatasource createDataSource(final JdbcConnection connection, boolean isAutoCommit,
+            final boolean rewriteBatchedStatements, final int poolSize, final boolean bulkLoad) {
         final JdbcConfiguration.Driver driver = getDriver(connection);
-        return new JdbcDatasource(i18n, resolver, connection, driver, isAutoCommit, rewriteBatchedStatements);
+        final DataSourceKey key = new DataSourceKey(driver.getId(), connection.getDbType(), connection.getHandler(),
+                connection.getJdbcUrl(), connection.getUserId(), connection.getPassword(), connection.getConnectionTimeOut(),
+                connection.getConnectionValidationTimeOut(), connection.getPoolSize(), connection.getIdleTimeOut(),
+                connection.getMaxLifetime(), isAutoCommit, rewriteBatchedStatements, bulkLoad);
+        final int requested = Math.max(1, poolSize);
+        final SharedDataSource shared = dataSources.compute(key, (k, current) -> {
+            final SharedDataSource holder = current != null ? current
+                    : new SharedDataSource(new JdbcDatasource(i18n, resolver, connection, driver, isAutoCommit,
+                            rewriteBatchedStatements, connection.getPoolSize(), bulkLoad), connection.getPoolSize());
+            holder.acquire(requested);
+            return holder;
+        });
+        return new JdbcDatasource(shared.getPool(),
+                () -> dataSources.computeIfPresent(key, (k, holder) -> holder.release(requested) ? holder : null));
+    }
+
+    /**
+     * Identify the connection pools that can be shared. It copies the connection configuration as the options are mutable.
+     */
+    @Data
+    private static class DataSourceKey {
+
+        private final String driverId;
+
+        private final String dbType;
+
+        private final String handler;
+
+        private final String jdbcUrl;
+
+        private final String userId;
+
+        private final String password;
+
+        private final long connectionTimeOut;
+
+        private final long connectionValidationTimeOut;
+
+        private final int poolSize;
+
+        private final long idleTimeOut;
+
+        private final long maxLifetime;
+
+        private final boolean autoCommit;
+
+        private final boolean rewriteBatchedStatements;
+
+        private final boolean bulkLoad;
+    }
+
+    /**
+     * A connection pool and its usages, it is only updated from the {@link #dataSources} atomic operations.
+     */
+    private static class SharedDataSource {
+
+        @Getter
+        private final JdbcDatasource pool;
+
+        private final int minPoolSize;
+
+        private int usages;
+
+        private int requestedConnections;
+
+        private SharedDataSource(final JdbcDatasource pool, final int minPoolSize) {
+            this.pool = pool;
+            this.minPoolSize = Math.max(1, minPoolSize);
+        }
+
+        private void acquire(final int connections) {
+            usages++;
+            requestedConnections += connections;
+            resize();
+        }
+
+        /**
+         * @return true if the pool is still used, false if it has been closed
+         */
+        private boolean release(final int connections) {
+            usages--;
+            requestedConnections -= connections;
+            if (usages > 0) {
+                resize();
+                return true;
+            }
+            pool.destroy();
+            return false;
+        }
+
+        /**
+         * Grow the pool so that the callers sharing it can't starve each other.
+         */
+        private void resize() {
+            pool.dataSource.getHikariConfigMXBean().setMaximumPoolSize(Math.max(minPoolSize, requestedConnections));
+        }
     }
 
     public static class JdbcDatasource implements AutoCloseable {
 
         private final Resolver.ClassLoaderDescriptor classLoaderDescriptor;
 
-        private HikariDataSource dataSource;
+        private final HikariDataSource dataSource;
+
+        private final Runnable release;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private final Connection transaction;
+
+        private final AtomicBoolean rolledBack = new AtomicBoolean();
 
         public JdbcDatasource(final I18nMessage i18nMessage, final Resolver resolver, final JdbcConnection connection,
                 final JdbcConfiguration.Driver driver, final boolean isAutoCommit, final boolean rewriteBatchedStatements) {
+            this(i18nMessage, resolver, connection, driver, isAutoCommit, rewriteBatchedStatements, 1);
+        }
+
+        public JdbcDatasource(final I18nMessage i18nMessage, final Resolver resolver, final JdbcConnection connection,
+                final JdbcConfiguration.Driver driver, final boolean isAutoCommit, final boolean rewriteBatchedStatements,
+                final int poolSize) {
+            this(i18nMessage, resolver, connection, driver, isAutoCommit, rewriteBatchedStatements, poolSize, false);
+        }
+
+        public JdbcDatasource(final I18nMessage i18nMessage, final Resolver resolver, final JdbcConnection connection,
+                final JdbcConfiguration.Driver driver, final boolean isAutoCommit, final boolean rewriteBatchedStatements,
+                final int poolSize, final boolean bulkLoad) {
             final Thread thread = Thread.currentThread();
             final ClassLoader prev = thread.getContextClassLoader();
 
@@ -145,6 +359,8 @@ public class JdbcService {
                 throw new IllegalStateException(i18nMessage.errorDriverLoad(driver.getId(), missingJars));
             }
 
+            this.release = null;
+            this.transaction = null;
             try {
                 thread.setContextClassLoader(classLoaderDescriptor.asClassLoader());
                 dataSource = new HikariDataSource();
@@ -153,21 +369,86 @@ public class JdbcService {
                 dataSource.setDriverClassName(driver.getClassName());
                 dataSource.setJdbcUrl(connection.getJdbcUrl());
                 dataSource.setAutoCommit(isAutoCommit);
-                dataSource.setMaximumPoolSize(1);
+                dataSource.setMaximumPoolSize(Math.max(1, poolSize));
                 dataSource.setConnectionTimeout(connection.getConnectionTimeOut() * 1000);
                 dataSource.setValidationTimeout(connection.getConnectionValidationTimeOut() * 1000);
-                PlatformFactory.get(connection, i18nMessage).addDataSourceProperties(dataSource);
+                dataSource.setMinimumIdle(0);
+                dataSource.setIdleTimeout(connection.getIdleTimeOut() * 1000);
+                dataSource.setMaxLifetime(connection.getMaxLifetime() * 1000);
+                final Platform platform = PlatformFactory.get(connection, i18nMessage);
+                platform.addDataSourceProperties(dataSource);
+                if (bulkLoad) {
+                    platform.addBulkLoadDataSourceProperties(dataSource);
+                }
                 dataSource.addDataSourceProperty("rewriteBatchedStatements", String.valueOf(rewriteBatchedStatements));
-                // dataSource.addDataSourceProperty("cachePrepStmts", "true");
-                // dataSource.addDataSourceProperty("prepStmtCacheSize", "250");
-                // dataSource.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-                // dataSource.addDataSourceProperty("useServerPrepStmts", "true");
             } finally {
                 thread.setContextClassLoader(prev);
             }
         }
 
+        private JdbcDatasource(final JdbcDatasource pool, final Runnable release) {
+            this(pool, release, null);
+        }
+
+        private JdbcDatasource(final JdbcDatasource pool, final Runnable release, final Connection transaction) {
+            this.classLoaderDescriptor = pool.classLoaderDescriptor;
+            this.dataSource = pool.dataSource;
+            this.release = release;
+            this.transaction = transaction;
+        }
+
+        /**
+         * A view of this data source handing out a single connection, the users of the view can neither commit nor close it.
+         * The work done through the view is committed with {@link #commit()} and rolled back when the view is closed.
+         */
+        public JdbcDatasource transaction() throws SQLException {
+            return new JdbcDatasource(this, null, getConnection());
+        }
+
+        /**
+         * Commit the work done through a transaction view.
+         */
+        public void commit() throws SQLException {
+            if (transaction == null) {
+                throw new IllegalStateException("not a transaction view");
+            }
+            transaction.commit();
+        }
+
+        /**
+         * @return true when this data source is a transaction view, its users can't commit a part of their work
+         */
+        public boolean isTransaction() {
+            return transaction != null;
+        }
+
+        /**
+         * @return true when a user of a transaction view rolled it back, the work done before is lost
+         */
+        public boolean isRolledBack() {
+            return rolledBack.get();
+        }
+
         public Connection getConnection() throws SQLException {
+            if (transaction != null) {
+                return (Connection) Proxy.newProxyInstance(classLoaderDescriptor.asClassLoader(),
+                        new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                            switch (method.getName()) {
+                            case "close":
+                            case "commit":
+                                return null;
+                            case "rollback":
+                                rolledBack.set(true);
+                                break;
+                            default:
+                            }
+                            try {
+                                return method.invoke(transaction, args);
+                            } catch (final InvocationTargetException ite) {
+                                throw ite.getTargetException();
+                            }
+                        });
+            }
             final Thread thread = Thread.currentThread();
             final ClassLoader prev = thread.getContextClassLoader();
             try {
@@ -180,6 +461,29 @@ public class JdbcService {
 
         @Override
         public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            if (transaction != null) {
+                // no-op when the work was committed
+                try {
+                    transaction.rollback();
+                } catch (final SQLException e) {
+                    log.warn("can't rollback transaction", e);
+                }
+                try {
+                    transaction.close();
+                } catch (final SQLException e) {
+                    log.warn("can't release transaction connection", e);
+                }
+            } else if (release != null) {
+                release.run();
+            } else {
+                destroy();
+            }
+        }
+
+        private void destroy() {
             final Thread thread = Thread.currentThread();
             final ClassLoader prev = thread.getContextClassLoader();
             try {
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.service;
+
+import lombok.Data;
+import org.talend.components.jdbc.datastore.JdbcConnection;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database metadata shared by the UI actions and the components of a connection: table names, table existence, columns
+ * and primary keys. The entries expire after a time to live and the least recently used ones are evicted once the cache is
+ * full.
+ * <p>
+ * The entries are keyed by the connection configuration and not by the catalog and schema of an open connection: they are
+ * the default ones of the connection user, so a cached entry is read without opening a connection.
+ */
+class MetadataCache {
+
+    enum Kind {
+        TABLES,
+        TABLE_EXISTS,
+        COLUMNS,
+        PRIMARY_KEYS
+    }
+
+    private final long ttl;
+
+    private final Map<Key, Entry> entries;
+
+    MetadataCache(final int maxSize, final long ttlSeconds) {
+        this.ttl = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    static Key key(final JdbcConnection connection, final Kind kind, final String table) {
+        return new Key(connection.getDbType(), connection.getHandler(), connection.getJdbcUrl(), connection.getUserId(),
+                connection.getPassword(), kind, table);
+    }
+
+    /**
+     * @return the cached value or null when it is missing or expired
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <T> T getIfPresent(final Key key) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.created > ttl) {
+            entries.remove(key);
+            return null;
+        }
+        return (T) entry.value;
+    }
+
+    synchronized void put(final Key key, final Object value) {
+        if (ttl > 0 && value != null) {
+            entries.put(key, new Entry(value, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Get the cached value or load and cache it. The loader runs outside of the cache lock, concurrent misses of the same
+     * key may load it several times.
+     */
+    <T> T get(final Key key, final Loader<T> loader) throws SQLException {
+        final T cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final T value = loader.load();
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Remove the entries of a table and the table names of its connection, called once the table is created.
+     */
+    synchronized void invalidate(final JdbcConnection connection, final String table) {
+        final Key tables = key(connection, Kind.TABLES, null);
+        entries.keySet().removeIf(key -> key.sameConnection(tables) && (key.kind == Kind.TABLES || key.table.equals(table)));
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    @FunctionalInterface
+    interface Loader<T> {
+
+        T load() throws SQLException;
+    }
+
+    @Data
+    static class Key {
+
+        private final String dbType;
+
+        private final String handler;
+
+        private final String url;
+
+        private final String user;
+
+        private final String password;
+
+        private final Kind kind;
+
+        private final String table;
+
+        private boolean sameConnection(final Key other) {
+            return new Key(dbType, handler, url, user, password, other.kind, other.table).equals(other);
+        }
+    }
+
+    @Data
+    private static class Entry {
+
+        private final Object value;
+
+        private final long created;
+    }
+}
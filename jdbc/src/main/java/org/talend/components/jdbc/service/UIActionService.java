@@ -18,6 +18,7 @@ import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.configuration.RedshiftSortStrategy;
 import org.talend.components.jdbc.dataset.TableNameDataset;
 import org.talend.components.jdbc.datastore.JdbcConnection;
+import org.talend.components.jdbc.output.platforms.PlatformFactory;
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.service.Service;
 import org.talend.sdk.component.api.service.asyncvalidation.AsyncValidation;
@@ -35,18 +36,18 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
 import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.function.Supplier;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
 import static java.util.Comparator.comparingInt;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
@@ -96,9 +97,21 @@ public class UIActionService {
                     .map(e -> new SuggestionValues.Item(e.name(), e.label(i18n))).collect(toList()));
         }
 
-        return new SuggestionValues(true,
-                Stream.of(OutputConfig.ActionOnData.values()).filter(e -> !OutputConfig.ActionOnData.BULK_LOAD.equals(e))
-                        .map(e -> new SuggestionValues.Item(e.name(), e.label(i18n))).collect(toList()));
+        final boolean bulkLoad = supportsBulkLoad(dataset);
+        return new SuggestionValues(true, Stream.of(OutputConfig.ActionOnData.values())
+                .filter(e -> bulkLoad || !OutputConfig.ActionOnData.BULK_LOAD.equals(e))
+                .map(e -> new SuggestionValues.Item(e.name(), e.label(i18n))).collect(toList()));
+    }
+
+    private boolean supportsBulkLoad(final TableNameDataset dataset) {
+        if (dataset == null || dataset.getConnection() == null || dataset.getConnection().getDbType() == null) {
+            return false;
+        }
+        try {
+            return PlatformFactory.get(dataset.getConnection(), i18n).supportsBulkLoad();
+        } catch (final IllegalArgumentException e) {
+            return false;
+        }
     }
 
     @Suggestions(ACTION_LIST_HANDLERS_DB)
@@ -135,23 +148,24 @@ public class UIActionService {
 
     @Suggestions(ACTION_SUGGESTION_TABLE_COLUMNS_NAMES)
     public SuggestionValues getTableColumns(@Option final TableNameDataset dataset) {
-        try (Connection conn = jdbcService.createDataSource(dataset.getConnection()).getConnection()) {
-            try (final Statement statement = conn.createStatement()) {
-                statement.setMaxRows(1);
-                try (final ResultSet result = statement.executeQuery(dataset.getQuery())) {
-                    return new SuggestionValues(true,
-                            IntStream.rangeClosed(1, result.getMetaData().getColumnCount()).mapToObj(i -> {
-                                try {
-                                    return result.getMetaData().getColumnName(i);
-                                } catch (SQLException e) {
-                                    e.printStackTrace();
+        try {
+            final List<String> columns = jdbcService.metadata(dataset.getConnection(), MetadataCache.Kind.COLUMNS,
+                    dataset.getTableName(), () -> {
+                        try (final JdbcService.JdbcDatasource dataSource = jdbcService.createDataSource(dataset.getConnection());
+                                final Connection conn = dataSource.getConnection();
+                                final Statement statement = conn.createStatement()) {
+                            statement.setMaxRows(1);
+                            try (final ResultSet result = statement.executeQuery(dataset.getQuery())) {
+                                final List<String> names = new ArrayList<>();
+                                for (int i = 1; i <= result.getMetaData().getColumnCount(); i++) {
+                                    ofNullable(result.getMetaData().getColumnName(i)).ifPresent(names::add);
                                 }
-
-                                return null;
-                            }).filter(Objects::nonNull).map(columnName -> new SuggestionValues.Item(columnName, columnName))
-                                    .collect(toSet()));
-                }
-            }
+                                return unmodifiableList(names);
+                            }
+                        }
+                    });
+            return new SuggestionValues(true,
+                    columns.stream().map(columnName -> new SuggestionValues.Item(columnName, columnName)).collect(toSet()));
         } catch (final Exception unexpected) {
             // catch all exceptions for this ui label to return empty list
             log.error(i18n.errorCantLoadTableSuggestions(), unexpected);
@@ -163,20 +177,27 @@ public class UIActionService {
     @Suggestions(ACTION_SUGGESTION_TABLE_NAMES)
     public SuggestionValues getTableFromDatabase(@Option final JdbcConnection datastore) {
         final Collection<SuggestionValues.Item> items = new HashSet<>();
-        try (Connection connection = jdbcService.createDataSource(datastore).getConnection()) {
-            final DatabaseMetaData dbMetaData = connection.getMetaData();
-            try (ResultSet tables = dbMetaData.getTables(connection.getCatalog(), connection.getSchema(), null,
-                    getAvailableTableTypes(dbMetaData).toArray(new String[0]))) {
-                while (tables.next()) {
-                    ofNullable(ofNullable(tables.getString("TABLE_NAME")).orElseGet(() -> {
-                        try {
-                            return tables.getString("SYNONYM_NAME");
-                        } catch (final SQLException e) {
-                            return null;
+        try {
+            jdbcService.metadata(datastore, MetadataCache.Kind.TABLES, null, () -> {
+                final List<String> tables = new ArrayList<>();
+                try (final JdbcService.JdbcDatasource dataSource = jdbcService.createDataSource(datastore);
+                        final Connection connection = dataSource.getConnection()) {
+                    final DatabaseMetaData dbMetaData = connection.getMetaData();
+                    try (ResultSet result = dbMetaData.getTables(connection.getCatalog(), connection.getSchema(), null,
+                            getAvailableTableTypes(dbMetaData).toArray(new String[0]))) {
+                        while (result.next()) {
+                            ofNullable(ofNullable(result.getString("TABLE_NAME")).orElseGet(() -> {
+                                try {
+                                    return result.getString("SYNONYM_NAME");
+                                } catch (final SQLException e) {
+                                    return null;
+                                }
+                            })).ifPresent(tables::add);
                         }
-                    })).ifPresent(t -> items.add(new SuggestionValues.Item(t, t)));
+                    }
                 }
-            }
+                return unmodifiableList(tables);
+            }).forEach(t -> items.add(new SuggestionValues.Item(t, t)));
         } catch (final Exception unexpected) { // catch all exceptions for this ui label to return empty list
             log.error(i18n.errorCantLoadTableSuggestions(), unexpected);
         }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.components.jdbc.configuration.InputTableNameConfig;
+import org.talend.components.jdbc.containers.DerbyTestContainer;
+import org.talend.components.jdbc.input.TableNameInputMapper;
+import org.talend.sdk.component.junit.BaseComponentsHandler;
+import org.talend.sdk.component.runtime.input.Input;
+import org.talend.sdk.component.runtime.input.Mapper;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import static org.talend.components.jdbc.BaseJdbcTest.newTableNameDataset;
+
+/**
+ * Measure the rows per second read by the table name input from an embedded Derby server.
+ * <p>
+ * Run it from the test classpath with <code>java org.talend.components.jdbc.benchmark.InputEmitterBenchmark</code>,
+ * the score is expressed in rows per second.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class InputEmitterBenchmark {
+
+    private static final int ROWS = 20_000;
+
+    private static final String TABLE = "BENCH_INPUT";
+
+    private DerbyTestContainer derby;
+
+    private BaseComponentsHandler.EmbeddedComponentManager manager;
+
+    private Mapper mapper;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        derby = new DerbyTestContainer();
+        derby.start();
+        try (final Connection connection = DriverManager.getConnection(derby.getJdbcUrl(), derby.getUsername(),
+                derby.getPassword())) {
+            connection.setAutoCommit(false);
+            try (final Statement statement = connection.createStatement()) {
+                statement.executeUpdate("CREATE TABLE " + TABLE + " (id INT NOT NULL PRIMARY KEY, amount BIGINT,"
+                        + " price DOUBLE, label VARCHAR(100), created TIMESTAMP)");
+            }
+            try (final PreparedStatement insert = connection.prepareStatement("INSERT INTO " + TABLE + " VALUES (?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < ROWS; i++) {
+                    insert.setInt(1, i);
+                    insert.setLong(2, i * 1000L);
+                    insert.setDouble(3, i / 3d);
+                    insert.setString(4, "label-" + i);
+                    insert.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+
+        final BaseComponentsHandler handler = new BaseComponentsHandler() {
+
+            {
+                packageName = "org.talend.components.jdbc";
+            }
+        };
+        manager = handler.start();
+        final InputTableNameConfig config = new InputTableNameConfig();
+        config.setDataSet(newTableNameDataset(TABLE, derby));
+        mapper = handler.createMapper(TableNameInputMapper.class, config);
+        mapper.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mapper.stop();
+        manager.close();
+        derby.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long readTable() {
+        final Input input = mapper.create();
+        input.start();
+        long count = 0;
+        try {
+            while (input.next() != null) {
+                count++;
+            }
+        } finally {
+            input.stop();
+        }
+        return count;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InputEmitterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.talend.components.jdbc.configuration.OutputConfig;
+import org.talend.components.jdbc.containers.DerbyTestContainer;
+import org.talend.components.jdbc.output.Reject;
+import org.talend.components.jdbc.output.platforms.DerbyPlatform;
+import org.talend.components.jdbc.output.statement.RecordToSQLTypeConverter;
+import org.talend.components.jdbc.output.statement.operations.Insert;
+import org.talend.components.jdbc.service.I18nMessage;
+import org.talend.components.jdbc.service.JdbcService;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+import org.talend.sdk.component.junit.BaseComponentsHandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.talend.components.jdbc.BaseJdbcTest.newTableNameDataset;
+
+/**
+ * Measure the rows per second written by the insert query manager into an embedded Derby server.
+ * <p>
+ * <code>insert</code> measures the whole batch execution, <code>bind</code> only the binding of the records to the
+ * prepared statement. Run it from the test classpath with
+ * <code>java org.talend.components.jdbc.benchmark.InsertBenchmark</code>.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class InsertBenchmark {
+
+    private static final int ROWS = 5_000;
+
+    private static final String TABLE = "BENCH_INSERT";
+
+    private DerbyTestContainer derby;
+
+    private BaseComponentsHandler.EmbeddedComponentManager manager;
+
+    private JdbcService.JdbcDatasource dataSource;
+
+    private Insert insert;
+
+    private List<Record> records;
+
+    private Connection connection;
+
+    private PreparedStatement statement;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        derby = new DerbyTestContainer();
+        derby.start();
+
+        final BaseComponentsHandler handler = new BaseComponentsHandler() {
+
+            {
+                packageName = "org.talend.components.jdbc";
+            }
+        };
+        manager = handler.start();
+        final I18nMessage i18n = handler.findService(I18nMessage.class);
+        final RecordBuilderFactory recordBuilderFactory = handler.findService(RecordBuilderFactory.class);
+        final OutputConfig configuration = new OutputConfig();
+        configuration.setDataset(newTableNameDataset(TABLE, derby));
+        configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+        dataSource = handler.findService(JdbcService.class).createDataSource(configuration.getDataset().getConnection(), false,
+                false, 2);
+        try (final Connection connection = dataSource.getConnection(); final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE " + TABLE + " (\"id\" INT, \"amount\" BIGINT, \"price\" DOUBLE,"
+                    + " \"label\" VARCHAR(100), \"active\" BOOLEAN, \"created\" TIMESTAMP)");
+            connection.commit();
+        }
+
+        final ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+        records = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            final Record.Builder builder = recordBuilderFactory.newRecordBuilder().withInt("id", i)
+                    .withLong("amount", i * 1000L).withDouble("price", i / 3d).withString("label", "label-" + i)
+                    .withBoolean("active", i % 2 == 0);
+            // one date out of ten is null
+            records.add((i % 10 == 0 ? builder : builder.withDateTime("created", now.plusSeconds(i))).build());
+        }
+        insert = new Insert(new DerbyPlatform(i18n), configuration, i18n);
+
+        connection = dataSource.getConnection();
+        statement = connection.prepareStatement(insert.buildQuery(records));
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (final Connection connection = dataSource.getConnection(); final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM " + TABLE);
+            connection.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        statement.close();
+        connection.close();
+        dataSource.close();
+        manager.close();
+        derby.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Reject> insert() throws SQLException {
+        return insert.execute(records, dataSource);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void bind() throws SQLException {
+        insert.buildQuery(records);
+        final RecordToSQLTypeConverter.Binder[] binders = RecordToSQLTypeConverter.compile(insert.getQueryParams());
+        for (final Record record : records) {
+            statement.clearParameters();
+            for (int i = 0; i < binders.length; i++) {
+                binders[i].bind(statement, i + 1, record);
+            }
+            statement.addBatch();
+        }
+        statement.clearBatch();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InsertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.testsuite;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.talend.components.jdbc.output.statement.BackoffRetryPolicy;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackoffRetryPolicyTest {
+
+    private final BackoffRetryPolicy policy = new BackoffRetryPolicy(3, 100, 1000);
+
+    @ParameterizedTest
+    @CsvSource({ "40001,1,true", "40001,3,true", "40001,4,false", "40P01,1,false", "23505,1,false" })
+    void shouldRetry(final String sqlState, final int attempt, final boolean retried) {
+        assertEquals(retried, policy.shouldRetry(new SQLException("error", sqlState), attempt));
+    }
+
+    @Test
+    void shouldRetryNextException() {
+        final SQLException error = new SQLException("batch error", "XJ208");
+        error.setNextException(new SQLException("dead lock", "40001"));
+        assertTrue(policy.shouldRetry(error, 1));
+        assertFalse(policy.shouldRetry(new SQLException("no state"), 1));
+    }
+
+    @RepeatedTest(20)
+    void backoffHalfJitter() {
+        // the wait doubles from the initial backoff up to the max one, half of it is random
+        final long[] caps = { 100, 200, 400, 800, 1000, 1000 };
+        for (int attempt = 1; attempt <= caps.length; attempt++) {
+            final long backoff = policy.backoff(attempt);
+            final long cap = caps[attempt - 1];
+            assertTrue(backoff >= cap / 2 && backoff <= cap, "attempt " + attempt + " waited " + backoff);
+        }
+    }
+
+    @Test
+    void backoffCap() {
+        assertTrue(policy.backoff(Integer.MAX_VALUE) <= 1000);
+        assertEquals(0, new BackoffRetryPolicy(3, 0, 1000).backoff(1));
+        assertEquals(1, new BackoffRetryPolicy(3, 1, 1).backoff(5));
+    }
+}
@@ -15,27 +15,49 @@ package org.talend.components.jdbc.testsuite;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.TestInfo;
 import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.talend.components.jdbc.BaseJdbcTest;
 import org.talend.components.jdbc.Disabled;
 import org.talend.components.jdbc.DisabledDatabases;
 import org.talend.components.jdbc.WithDatabasesEnvironments;
+import org.talend.components.jdbc.configuration.FilterOperator;
+import org.talend.components.jdbc.configuration.FilterType;
+import org.talend.components.jdbc.configuration.InputFilter;
 import org.talend.components.jdbc.configuration.InputQueryConfig;
 import org.talend.components.jdbc.configuration.InputTableNameConfig;
 import org.talend.components.jdbc.containers.JdbcTestContainer;
 import org.talend.components.jdbc.dataset.SqlQueryDataset;
 import org.talend.components.jdbc.dataset.TableNameDataset;
 import org.talend.components.jdbc.datastore.JdbcConnection;
+import org.talend.components.jdbc.input.QueryInputEmitter;
+import org.talend.components.jdbc.input.TableNameInputEmitter;
+import org.talend.components.jdbc.input.TableNameInputMapper;
+import org.talend.components.jdbc.output.platforms.Platform;
 import org.talend.components.jdbc.output.platforms.PlatformFactory;
+import org.talend.components.jdbc.service.JdbcService;
 import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.service.Service;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 import org.talend.sdk.component.junit.environment.Environment;
 import org.talend.sdk.component.junit.environment.builtin.beam.DirectRunnerEnvironment;
 import org.talend.sdk.component.runtime.manager.chain.Job;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
 
+import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.talend.components.jdbc.Database.SNOWFLAKE;
 import static org.talend.sdk.component.junit.SimpleFactory.configurationByExample;
 
@@ -46,6 +68,9 @@ import static org.talend.sdk.component.junit.SimpleFactory.configurationByExampl
 @DisabledDatabases({ @Disabled(value = SNOWFLAKE, reason = "Snowflake credentials need to be setup on ci") })
 class InputTest extends BaseJdbcTest {
 
+    @Service
+    private RecordBuilderFactory recordBuilderFactory;
+
     @TestTemplate
     @DisplayName("Query - valid select query")
     void validQuery(final TestInfo testInfo, final JdbcTestContainer container) {
@@ -112,6 +137,98 @@ class InputTest extends BaseJdbcTest {
                         .run());
     }
 
+    @TestTemplate
+    @DisplayName("Query - streaming statement profile")
+    void streamingStatement(final TestInfo testInfo, final JdbcTestContainer container) throws SQLException {
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, 1, false, null);
+        final JdbcConnection connection = newConnection(container);
+        final Platform platform = PlatformFactory.get(connection, getI18nMessage());
+        try (final JdbcService.JdbcDatasource dataSource = getJdbcService().createDataSource(connection);
+                final Connection conn = dataSource.getConnection();
+                final PreparedStatement statement = platform.prepareStreamingStatement(conn,
+                        "select " + platform.identifier("id") + " from " + platform.identifier(testTableName), 250)) {
+            assertEquals(250, statement.getFetchSize());
+            assertEquals(ResultSet.TYPE_FORWARD_ONLY, statement.getResultSetType());
+            assertEquals(ResultSet.CONCUR_READ_ONLY, statement.getResultSetConcurrency());
+            assertFalse(conn.getAutoCommit());
+        }
+    }
+
+    /**
+     * Reads 10M rows, enabled with <code>-Dtalend.jdbc.it.streaming=true</code>.
+     */
+    @TestTemplate
+    @EnabledIfSystemProperty(named = "talend.jdbc.it.streaming", matches = "true")
+    @DisplayName("Query - stream a 10M rows result with a constant heap")
+    void streamingQuery(final TestInfo testInfo, final JdbcTestContainer container) {
+        final int rowCount = 3163;
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, rowCount, false, null);
+        final JdbcConnection connection = newConnection(container);
+        final Platform platform = PlatformFactory.get(connection, getI18nMessage());
+        final SqlQueryDataset sqlQueryDataset = new SqlQueryDataset();
+        sqlQueryDataset.setConnection(connection);
+        sqlQueryDataset.setSqlQuery("select a." + platform.identifier("id") + ", b." + platform.identifier("t_string")
+                + " from " + platform.identifier(testTableName) + " a, " + platform.identifier(testTableName) + " b");
+        final InputQueryConfig config = new InputQueryConfig();
+        config.setDataSet(sqlQueryDataset);
+
+        final Runtime runtime = Runtime.getRuntime();
+        final QueryInputEmitter emitter = new QueryInputEmitter(config, getJdbcService(), recordBuilderFactory,
+                getI18nMessage());
+        emitter.init();
+        long rows = 0;
+        long baseline = -1;
+        long peak = 0;
+        try {
+            while (emitter.next() != null) {
+                if (++rows % 1_000_000 == 0) {
+                    System.gc();
+                    final long used = runtime.totalMemory() - runtime.freeMemory();
+                    if (baseline < 0) {
+                        baseline = used;
+                    } else {
+                        peak = Math.max(peak, used);
+                    }
+                }
+            }
+        } finally {
+            emitter.release();
+        }
+
+        assertEquals((long) rowCount * rowCount, rows);
+        assertTrue(peak - baseline < 64 * 1024 * 1024,
+                "heap grew by " + (peak - baseline) / 1024 / 1024 + "MB while streaming the result");
+    }
+
+    @TestTemplate
+    @DisplayName("TableName - records prefetched by a background thread")
+    void prefetchedTableName(final TestInfo testInfo, final JdbcTestContainer container) {
+        final int rowCount = 100;
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, rowCount, false, null);
+        final InputTableNameConfig config = new InputTableNameConfig();
+        config.setDataSet(newTableNameDataset(testTableName, container));
+        config.getDataSet().setPrefetchSize(10);
+        final String configURI = configurationByExample().forInstance(config).configured().toQueryString();
+        Job.components().component("jdbcInput", "Jdbc://TableNameInput?" + configURI).component("collector", "test://collector")
+                .connections().from("jdbcInput").to("collector").build().run();
+        assertEquals(rowCount, getComponentsHandler().getCollectedData(Record.class).size());
+
+        // released before the end of the result while the prefetching thread waits for room in the queue
+        final TableNameInputEmitter emitter = new TableNameInputEmitter(config, getJdbcService(), recordBuilderFactory,
+                getI18nMessage(), null);
+        emitter.init();
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertNotNull(emitter.next());
+            }
+        } finally {
+            emitter.release();
+        }
+    }
+
     @TestTemplate
     @DisplayName("TableName - valid table name")
     void validTableName(final TestInfo testInfo, final JdbcTestContainer container) {
@@ -159,4 +276,111 @@ class InputTest extends BaseJdbcTest {
         assertEquals(rowCount, collectedData.size());
     }
 
+    @TestTemplate
+    @DisplayName("TableName - partitioned read using a split column")
+    void partitionedTableName(final TestInfo testInfo, final JdbcTestContainer container) {
+        final int rowCount = 100;
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, rowCount, false, null);
+        final InputTableNameConfig config = new InputTableNameConfig();
+        config.setDataSet(newTableNameDataset(testTableName, container));
+        config.setSplitColumn("id");
+        config.setNumPartitions(4);
+        final String configURI = configurationByExample().forInstance(config).configured().toQueryString();
+        Job.components().component("jdbcInput", "Jdbc://TableNameInput?" + configURI).component("collector", "test://collector")
+                .connections().from("jdbcInput").to("collector").build().run();
+
+        final List<Record> collectedData = getComponentsHandler().getCollectedData(Record.class);
+        assertEquals(rowCount, collectedData.size());
+        assertEquals(rowCount, collectedData.stream().map(record -> record.get(Object.class, "id")).distinct().count());
+        assertEquals(4, new TableNameInputMapper(config, getJdbcService(), null, getI18nMessage()).split(rowCount).size());
+    }
+
+    @TestTemplate
+    @DisplayName("TableName - selected columns and filters")
+    void projectedAndFilteredTableName(final TestInfo testInfo, final JdbcTestContainer container) {
+        final int rowCount = 100;
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, rowCount, false, null);
+        final InputTableNameConfig config = new InputTableNameConfig();
+        config.setDataSet(newTableNameDataset(testTableName, container));
+        config.setColumns(asList("id", "t_string"));
+        config.setFilters(asList(newFilter("id", FilterOperator.GREATER, "40", FilterType.INTEGER),
+                newFilter("id", FilterOperator.LOWER_OR_EQUAL, "60", FilterType.INTEGER),
+                newFilter("t_string", FilterOperator.LIKE, "customer%", FilterType.STRING)));
+        final String configURI = configurationByExample().forInstance(config).configured().toQueryString();
+        Job.components().component("jdbcInput", "Jdbc://TableNameInput?" + configURI).component("collector", "test://collector")
+                .connections().from("jdbcInput").to("collector").build().run();
+
+        final List<Record> collectedData = getComponentsHandler().getCollectedData(Record.class);
+        assertEquals(20, collectedData.size());
+        assertTrue(collectedData.stream().allMatch(record -> record.getSchema().getEntries().size() == 2));
+    }
+
+    @TestTemplate
+    @DisplayName("TableName - partitioned read using the table physical storage")
+    void partitionedByStorageTableName(final TestInfo testInfo, final JdbcTestContainer container) {
+        final int rowCount = 100;
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, rowCount, false, null);
+        final InputTableNameConfig config = new InputTableNameConfig();
+        config.setDataSet(newTableNameDataset(testTableName, container));
+        config.setSplitByStorage(true);
+        config.setNumPartitions(4);
+        final String configURI = configurationByExample().forInstance(config).configured().toQueryString();
+        Job.components().component("jdbcInput", "Jdbc://TableNameInput?" + configURI).component("collector", "test://collector")
+                .connections().from("jdbcInput").to("collector").build().run();
+
+        final List<Record> collectedData = getComponentsHandler().getCollectedData(Record.class);
+        assertEquals(rowCount, collectedData.size());
+        assertEquals(rowCount, collectedData.stream().map(record -> record.get(Object.class, "id")).distinct().count());
+        assertTrue(new TableNameInputMapper(config, getJdbcService(), null, getI18nMessage()).split(rowCount).size() > 1);
+    }
+
+    @TestTemplate
+    @DisplayName("Incremental - read only the rows beyond the persisted watermark")
+    void incrementalRead(final TestInfo testInfo, final JdbcTestContainer container) throws IOException {
+        final int rowCount = 50;
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, rowCount, false, null);
+        final Path checkpoint = Files.createTempDirectory("jdbc_watermark").resolve("checkpoint.properties");
+        final JdbcConnection connection = newConnection(container);
+        final Platform platform = PlatformFactory.get(connection, getI18nMessage());
+        final SqlQueryDataset sqlQueryDataset = new SqlQueryDataset();
+        sqlQueryDataset.setConnection(connection);
+        sqlQueryDataset.setSqlQuery("select * from " + platform.identifier(testTableName) + " where " + platform.identifier("id")
+                + " <= 30");
+        final InputQueryConfig queryConfig = new InputQueryConfig();
+        queryConfig.setDataSet(sqlQueryDataset);
+        queryConfig.setWatermarkColumn("id");
+        queryConfig.setCheckpointFile(checkpoint.toString());
+        final String queryConfigURI = configurationByExample().forInstance(queryConfig).configured().toQueryString();
+        Job.components().component("jdbcInput", "Jdbc://QueryInput?" + queryConfigURI).component("collector", "test://collector")
+                .connections().from("jdbcInput").to("collector").build().run();
+        assertEquals(30, getComponentsHandler().getCollectedData(Record.class).size());
+        assertTrue(Files.exists(checkpoint));
+
+        getComponentsHandler().resetState();
+        final InputTableNameConfig tableConfig = new InputTableNameConfig();
+        tableConfig.setDataSet(newTableNameDataset(testTableName, container));
+        tableConfig.setWatermarkColumn("id");
+        tableConfig.setCheckpointFile(checkpoint.toString());
+        final String tableConfigURI = configurationByExample().forInstance(tableConfig).configured().toQueryString();
+        Job.components().component("jdbcInput", "Jdbc://TableNameInput?" + tableConfigURI)
+                .component("collector", "test://collector").connections().from("jdbcInput").to("collector").build().run();
+        final List<Record> collectedData = getComponentsHandler().getCollectedData(Record.class);
+        assertEquals(rowCount - 30, collectedData.size());
+        assertTrue(collectedData.stream().allMatch(record -> Long.parseLong(record.get(Object.class, "id").toString()) > 30));
+    }
+
+    private static InputFilter newFilter(final String column, final FilterOperator operator, final String value,
+            final FilterType type) {
+        final InputFilter filter = new InputFilter();
+        filter.setColumn(column);
+        filter.setOperator(operator);
+        filter.setValue(value);
+        filter.setType(type);
+        return filter;
+    }
+
 }
@@ -21,11 +21,13 @@ import org.talend.components.jdbc.BaseJdbcTest;
 import org.talend.components.jdbc.Disabled;
 import org.talend.components.jdbc.DisabledDatabases;
 import org.talend.components.jdbc.WithDatabasesEnvironments;
+import org.talend.components.jdbc.configuration.CommitMode;
 import org.talend.components.jdbc.configuration.DistributionStrategy;
 import org.talend.components.jdbc.configuration.OutputConfig;
 import org.talend.components.jdbc.configuration.RedshiftSortStrategy;
 import org.talend.components.jdbc.containers.JdbcTestContainer;
 import org.talend.components.jdbc.datastore.JdbcConnection;
+import org.talend.components.jdbc.output.SimpleOutput;
 import org.talend.components.jdbc.output.platforms.PlatformFactory;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.api.record.Schema;
@@ -49,10 +51,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
+import static java.util.Locale.ROOT;
 import static java.util.Collections.singletonList;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
@@ -61,6 +65,12 @@ import static org.apache.derby.vti.XmlVTI.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.talend.components.jdbc.Database.DERBY;
+import static org.talend.components.jdbc.Database.MARIADB;
+import static org.talend.components.jdbc.Database.MSSQL;
+import static org.talend.components.jdbc.Database.MYSQL;
+import static org.talend.components.jdbc.Database.ORACLE;
+import static org.talend.components.jdbc.Database.POSTGRESQL;
 import static org.talend.components.jdbc.Database.SNOWFLAKE;
 import static org.talend.sdk.component.junit.SimpleFactory.configurationByExample;
 
@@ -103,6 +113,140 @@ class OutputTest extends BaseJdbcTest {
         assertEquals(rowCount, countAll(testTableName, container));
     }
 
+    @TestTemplate
+    @DisplayName("Insert - flush thresholds committed per group")
+    void insertFlushPerGroup(final TestInfo testInfo, final JdbcTestContainer container) {
+        final OutputConfig configuration = new OutputConfig();
+        final String testTableName = getTestTableName(testInfo);
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+        configuration.setCreateTableIfNotExists(true);
+        configuration.setKeys(asList("id"));
+        configuration.setMaxFlushRecords(7);
+        configuration.setCommitMode(CommitMode.PER_GROUP);
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        final int rowCount = 50;
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, false, null, withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + config).connections().from("rowGenerator").to("jdbcOutput").build()
+                .run();
+        assertEquals(rowCount, countAll(testTableName, container));
+    }
+
+    @TestTemplate
+    @DisplayName("Insert - asynchronous writes")
+    void insertAsync(final TestInfo testInfo, final JdbcTestContainer container) {
+        final OutputConfig configuration = new OutputConfig();
+        final String testTableName = getTestTableName(testInfo);
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+        configuration.setCreateTableIfNotExists(true);
+        configuration.setKeys(asList("id"));
+        configuration.setMaxFlushRecords(7);
+        configuration.setAsyncWrite(true);
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        final int rowCount = 50;
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, false, null, withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + config).connections().from("rowGenerator").to("jdbcOutput").build()
+                .run();
+        assertEquals(rowCount, countAll(testTableName, container));
+    }
+
+    @TestTemplate
+    @DisplayName("Insert - asynchronous write failure reported by its group")
+    void asyncWriteFailure(final TestInfo testInfo, final JdbcTestContainer container) throws SQLException {
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, 1, false, null);
+        final OutputConfig configuration = new OutputConfig();
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+        configuration.setAsyncWrite(true);
+        final SimpleOutput output = new SimpleOutput(configuration, getJdbcService(), getI18nMessage());
+        try {
+            output.beforeGroup();
+            // the table has no such column, the write fails on the writer thread
+            output.elementListener(recordBuilderFactory.newRecordBuilder().withInt("id", 2).withString("unknown_column", "x")
+                    .build());
+            assertThrows(IllegalStateException.class, output::afterGroup);
+        } finally {
+            output.preDestroy();
+        }
+        assertEquals(1, countAll(testTableName, container));
+    }
+
+    @TestTemplate
+    @DisabledDatabases({ @Disabled(value = DERBY, reason = "Derby has no bulk load"),
+            @Disabled(value = MSSQL, reason = "MSSQL has no bulk load"),
+            @Disabled(value = ORACLE, reason = "Oracle has no bulk load"),
+            @Disabled(value = SNOWFLAKE, reason = "Snowflake loads through its stage for every action") })
+    @DisplayName("Bulk load - valid use case")
+    void bulkLoad(final TestInfo testInfo, final JdbcTestContainer container) {
+        final OutputConfig configuration = new OutputConfig();
+        final String testTableName = getTestTableName(testInfo);
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.BULK_LOAD.name());
+        configuration.setCreateTableIfNotExists(true);
+        configuration.setKeys(asList("id"));
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        final int rowCount = 50;
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, true, null, withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + config).connections().from("rowGenerator").to("jdbcOutput").build()
+                .run();
+        assertEquals(rowCount, countAll(testTableName, container));
+    }
+
+    @TestTemplate
+    @DisabledDatabases({ @Disabled(value = DERBY, reason = "SQL Server only"),
+            @Disabled(value = MARIADB, reason = "SQL Server only"), @Disabled(value = MYSQL, reason = "SQL Server only"),
+            @Disabled(value = ORACLE, reason = "SQL Server only"), @Disabled(value = POSTGRESQL, reason = "SQL Server only"),
+            @Disabled(value = SNOWFLAKE, reason = "SQL Server only") })
+    @DisplayName("Insert - SQL Server bulk copy")
+    void insertMssqlBulkCopy(final TestInfo testInfo, final JdbcTestContainer container) {
+        final OutputConfig configuration = new OutputConfig();
+        final String testTableName = getTestTableName(testInfo);
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+        configuration.setCreateTableIfNotExists(true);
+        configuration.setKeys(asList("id"));
+        configuration.setMssqlBulkCopy(true);
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        final int rowCount = 50;
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, true, null, withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + config).connections().from("rowGenerator").to("jdbcOutput").build()
+                .run();
+        assertEquals(rowCount, countAll(testTableName, container));
+    }
+
+    @TestTemplate
+    @DisabledDatabases({ @Disabled(value = DERBY, reason = "Oracle only"), @Disabled(value = MARIADB, reason = "Oracle only"),
+            @Disabled(value = MSSQL, reason = "Oracle only"), @Disabled(value = MYSQL, reason = "Oracle only"),
+            @Disabled(value = POSTGRESQL, reason = "Oracle only"), @Disabled(value = SNOWFLAKE, reason = "Oracle only") })
+    @DisplayName("Insert - Oracle direct-path insert")
+    void insertOracleAppendValues(final TestInfo testInfo, final JdbcTestContainer container) {
+        final OutputConfig configuration = new OutputConfig();
+        final String testTableName = getTestTableName(testInfo);
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+        configuration.setCreateTableIfNotExists(true);
+        configuration.setKeys(asList("id"));
+        configuration.setOracleAppendValues(true);
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        final int rowCount = 50;
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, true, null, withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + config).connections().from("rowGenerator").to("jdbcOutput").build()
+                .run();
+        assertEquals(rowCount, countAll(testTableName, container));
+    }
+
     @TestTemplate
     @DisplayName("Create table - combined primary keys")
     void createTableWithCombinedPrimaryKeys(final TestInfo testInfo, final JdbcTestContainer container) {
@@ -218,6 +362,27 @@ class OutputTest extends BaseJdbcTest {
         assertEquals(rowCount, countAll(testTableName, container));
     }
 
+    @TestTemplate
+    @DisabledDatabases({ @Disabled(value = SNOWFLAKE, reason = "Snowflake database don't enforce PK and UNIQUE constraint") })
+    @DisplayName("Insert - isolate the duplicate records of a batch")
+    void insertBisectRejects(final TestInfo testInfo, final JdbcTestContainer container) {
+        final String testTableName = getTestTableName(testInfo);
+        final long existingRecords = 5;
+        insertRows(testTableName, container, existingRecords, false, null);
+        final OutputConfig configuration = new OutputConfig();
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+        configuration.setBisectRejects(true);
+        final String config = configurationByExample().forInstance(configuration).configured().toQueryString();
+        final long rowCount = 50;
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(rowCount, false, null, withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + config).connections().from("rowGenerator").to("jdbcOutput").build()
+                .run();
+        assertEquals(rowCount, countAll(testTableName, container));
+    }
+
     @TestTemplate
     @DisplayName("Delete - valid query")
     void delete(final TestInfo testInfo, final JdbcTestContainer container) {
@@ -354,6 +519,92 @@ class OutputTest extends BaseJdbcTest {
                 .map(r -> ofNullable(r.getString("t_string")).orElseGet(() -> r.getString("T_STRING"))).collect(toSet()));
     }
 
+    @TestTemplate
+    @DisplayName("Upsert - combined keys")
+    void upsertWithCombinedKeys(final TestInfo testInfo, final JdbcTestContainer container) {
+        upsert(testInfo, container, asList("id", "t_long"), config -> {
+        });
+    }
+
+    @TestTemplate
+    @DisplayName("Upsert - native upsert statement")
+    void upsertNative(final TestInfo testInfo, final JdbcTestContainer container) {
+        upsert(testInfo, container, singletonList("id"), config -> config.setUseNativeUpsert(true));
+    }
+
+    @TestTemplate
+    @DisplayName("Upsert - parallel insert and update")
+    void upsertParallel(final TestInfo testInfo, final JdbcTestContainer container) {
+        upsert(testInfo, container, singletonList("id"), config -> config.setParallelUpsert(true));
+    }
+
+    @TestTemplate
+    @DisplayName("Upsert - sharded writer")
+    void upsertSharded(final TestInfo testInfo, final JdbcTestContainer container) {
+        upsert(testInfo, container, singletonList("id"), config -> config.setWriterShards(3));
+    }
+
+    @TestTemplate
+    @DisplayName("Upsert - keys matched with the database collation")
+    @DisabledDatabases({ @Disabled(value = DERBY, reason = "Derby collation is case sensitive"),
+            @Disabled(value = ORACLE, reason = "Oracle collation is case sensitive"),
+            @Disabled(value = POSTGRESQL, reason = "PostgreSQL collation is case sensitive"),
+            @Disabled(value = SNOWFLAKE, reason = "Snowflake collation is case sensitive") })
+    void upsertWithCaseInsensitiveKeys(final TestInfo testInfo, final JdbcTestContainer container) {
+        final String testTableName = getTestTableName(testInfo);
+        final OutputConfig configuration = new OutputConfig();
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.INSERT.name());
+        configuration.setCreateTableIfNotExists(true);
+        configuration.setVarcharLength(64);
+        configuration.setKeys(singletonList("name"));
+        getComponentsHandler().setInputData(Arrays.asList(
+                recordBuilderFactory.newRecordBuilder().withString("name", "Alice").withInt("amount", 1).build(),
+                recordBuilderFactory.newRecordBuilder().withString("name", "Bob").withInt("amount", 1).build()));
+        Job.components().component("emitter", "test://emitter")
+                .component("jdbcOutput",
+                        "Jdbc://Output?" + configurationByExample().forInstance(configuration).configured().toQueryString())
+                .connections().from("emitter").to("jdbcOutput").build().run();
+
+        configuration.setActionOnData(OutputConfig.ActionOnData.UPSERT.name());
+        getComponentsHandler().setInputData(Arrays.asList(
+                recordBuilderFactory.newRecordBuilder().withString("name", "ALICE").withInt("amount", 2).build(),
+                recordBuilderFactory.newRecordBuilder().withString("name", "carol").withInt("amount", 2).build()));
+        Job.components().component("emitter", "test://emitter")
+                .component("jdbcOutput",
+                        "Jdbc://Output?" + configurationByExample().forInstance(configuration).configured().toQueryString())
+                .connections().from("emitter").to("jdbcOutput").build().run();
+
+        final List<Record> rows = readAll(testTableName, container);
+        assertEquals(Stream.of("alice=2", "bob=1", "carol=2").collect(toSet()),
+                rows.stream().map(r -> ofNullable(r.getString("name")).orElseGet(() -> r.getString("NAME")).toLowerCase(ROOT)
+                        + "=" + r.getOptionalInt("amount").orElseGet(() -> r.getInt("AMOUNT"))).collect(toSet()));
+    }
+
+    private void upsert(final TestInfo testInfo, final JdbcTestContainer container, final List<String> keys,
+            final Consumer<OutputConfig> customizer) {
+        final int existingRecords = 40;
+        final String testTableName = getTestTableName(testInfo);
+        insertRows(testTableName, container, existingRecords, false, null);
+        final OutputConfig configuration = new OutputConfig();
+        configuration.setDataset(newTableNameDataset(testTableName, container));
+        configuration.setActionOnData(OutputConfig.ActionOnData.UPSERT.name());
+        configuration.setKeys(keys);
+        customizer.accept(configuration);
+        final String updateConfig = configurationByExample().forInstance(configuration).configured().toQueryString();
+        final int newRecords = existingRecords * 2;
+        Job.components()
+                .component("rowGenerator",
+                        "jdbcTest://RowGenerator?" + rowGeneratorConfig(newRecords, false, "updated", withBoolean, withBytes))
+                .component("jdbcOutput", "Jdbc://Output?" + updateConfig).connections().from("rowGenerator").to("jdbcOutput")
+                .build().run();
+
+        final List<Record> users = readAll(testTableName, container);
+        assertEquals(newRecords, users.size());
+        assertEquals(IntStream.rangeClosed(1, newRecords).mapToObj(i -> "updated" + i).collect(toSet()), users.stream()
+                .map(r -> ofNullable(r.getString("t_string")).orElseGet(() -> r.getString("T_STRING"))).collect(toSet()));
+    }
+
     @TestTemplate
     @DisplayName("Insert - Date type handling")
     void dateTypesTest(final TestInfo testInfo, final JdbcTestContainer container) throws ParseException {
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2006-2019 Talend Inc. - www.talend.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.talend.components.jdbc.testsuite;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.talend.components.jdbc.output.statement.operations.snowflake.SnowflakeCopy.stagedFileName;
+
+class SnowflakeCopyTest {
+
+    @ParameterizedTest
+    @CsvSource({ "talend-jdbc/tmp_users_20190101120000_2f1c/part_0_123_20190101120000.csv.gz",
+            "@~/talend-jdbc/tmp_users_20190101120000_2f1c/part_0_123_20190101120000.csv.gz",
+            "part_0_123_20190101120000.csv.gz" })
+    void copiedFileMatchesUploadedChunk(final String copiedFile) {
+        assertEquals("part_0_123_20190101120000.csv.gz", stagedFileName(copiedFile));
+    }
+}
@@ -37,7 +37,9 @@ import org.talend.sdk.component.junit.environment.builtin.ContextualEnvironment;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Locale;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
@@ -126,6 +128,7 @@ class UIActionServiceTest extends BaseJdbcTest {
                 connection.commit();
             }
         }
+        getJdbcService().invalidateMetadata(datastore, testTableName);
     }
 
     @TestTemplate
@@ -154,6 +157,33 @@ class UIActionServiceTest extends BaseJdbcTest {
                 .map(l -> l.toUpperCase(Locale.ROOT)).collect(toSet()));
     }
 
+    @TestTemplate
+    @DisplayName("Get Table columns list - cached until invalidated")
+    void getCachedTableColumns(final TestInfo testInfo, final JdbcTestContainer container) throws SQLException {
+        final String testTableName = getTestTableName(testInfo);
+        final TableNameDataset tableNameDataset = newTableNameDataset(testTableName, container);
+        final JdbcConnection datastore = tableNameDataset.getConnection();
+        createTestTable(testTableName, datastore);
+        assertEquals(Stream.of("ID").collect(toSet()), columns(uiActionService.getTableColumns(tableNameDataset)));
+
+        try (JdbcService.JdbcDatasource dataSource = getJdbcService().createDataSource(datastore, false);
+                final Connection connection = dataSource.getConnection();
+                final Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + PlatformFactory.get(datastore, getI18nMessage()).identifier(testTableName)
+                    + " ADD name VARCHAR(10)");
+            connection.commit();
+        }
+        assertEquals(Stream.of("ID").collect(toSet()), columns(uiActionService.getTableColumns(tableNameDataset)));
+
+        getJdbcService().invalidateMetadata(datastore, testTableName);
+        assertEquals(Stream.of("ID", "NAME").collect(toSet()), columns(uiActionService.getTableColumns(tableNameDataset)));
+    }
+
+    private Set<String> columns(final SuggestionValues values) {
+        return values.getItems().stream().map(SuggestionValues.Item::getLabel).map(l -> l.toUpperCase(Locale.ROOT))
+                .collect(toSet());
+    }
+
     @TestTemplate
     @DisplayName("Get Table Columns list - invalid connection")
     void getTableColumnsFromDatabaseWithInvalidConnection(final TestInfo testInfo, final JdbcTestContainer container) {